@@ -0,0 +1,158 @@
+package com.u.benchmark;
+
+import android.support.annotation.NonNull;
+import com.u.core.graph.DirectedAcyclicGraph;
+import com.u.core.node.ConditionSelector;
+import com.u.core.node.Node;
+
+/**
+ * Shapes of the generated flows. Every flow has a single root, the node 0, and every node is
+ * tagged with "n" and its position.
+ *
+ * Nodes of the chain and the lattice are selected with a "step" of 0 or more, so moving forward
+ * always picks the first outgoing edge. Leaves of the fan out are selected by their "leaf" position,
+ * so the root compiles a decision table.
+ */
+public enum FlowShape {
+
+    /**
+     * n0 -> n1 -> n2 -> ...
+     */
+    CHAIN {
+        @NonNull
+        @Override
+        Flow generate(int size) {
+            Node[] nodes = steps(size);
+            int[] from = new int[size - 1];
+            int[] to = new int[size - 1];
+            for (int i = 1; i < size; i++) {
+                from[i - 1] = i - 1;
+                to[i - 1] = i;
+            }
+            return new Flow(nodes, from, to);
+        }
+    },
+
+    /**
+     * n0 -> n1, n0 -> n2, n0 -> n3, ...
+     */
+    FAN_OUT {
+        @NonNull
+        @Override
+        Flow generate(int size) {
+            Node[] nodes = new Node[size];
+            nodes[0] = node(0, ConditionSelector.atLeast(KEY_STEP, 0));
+            for (int i = 1; i < size; i++) {
+                nodes[i] = node(i, ConditionSelector.equalTo(KEY_LEAF, i));
+            }
+
+            int[] from = new int[size - 1];
+            int[] to = new int[size - 1];
+            for (int i = 1; i < size; i++) {
+                to[i - 1] = i;
+            }
+            return new Flow(nodes, from, to);
+        }
+    },
+
+    /**
+     * Square grid where each node connects to the one below and the one at its right, so paths
+     * split and join again from the top left root to the bottom right node.
+     */
+    DIAMOND {
+        @NonNull
+        @Override
+        Flow generate(int size) {
+            int side = (int) Math.ceil(Math.sqrt(size));
+            Node[] nodes = steps(size);
+            int[] from = new int[2 * size];
+            int[] to = new int[2 * size];
+            int edges = 0;
+            for (int i = 0; i < size; i++) {
+                int below = i + side;
+                if (below < size) {
+                    from[edges] = i;
+                    to[edges++] = below;
+                }
+                if ((i + 1) % side != 0 && i + 1 < size) {
+                    from[edges] = i;
+                    to[edges++] = i + 1;
+                }
+            }
+            return new Flow(nodes, trim(from, edges), trim(to, edges));
+        }
+    };
+
+    public static final String KEY_STEP = "step";
+    public static final String KEY_LEAF = "leaf";
+
+    /**
+     * @param size amount of nodes, at least 2
+     * @return flow of the given size with this shape
+     */
+    @NonNull
+    abstract Flow generate(int size);
+
+    @NonNull
+    static String tag(int position) {
+        return "n" + position;
+    }
+
+    @NonNull
+    private static Node node(int position, @NonNull ConditionSelector selector) {
+        return Node.create()
+            .descriptor(Object.class)
+            .selector(selector)
+            .tag(tag(position))
+            .build();
+    }
+
+    @NonNull
+    private static Node[] steps(int size) {
+        Node[] nodes = new Node[size];
+        for (int i = 0; i < size; i++) {
+            nodes[i] = node(i, ConditionSelector.atLeast(KEY_STEP, 0));
+        }
+        return nodes;
+    }
+
+    @NonNull
+    private static int[] trim(@NonNull int[] array, int length) {
+        int[] trimmed = new int[length];
+        System.arraycopy(array, 0, trimmed, 0, length);
+        return trimmed;
+    }
+
+    /**
+     * Nodes and edges of a generated flow, for building graphs with them
+     */
+    static final class Flow {
+
+        final @NonNull Node[] nodes;
+        private final @NonNull int[] from;
+        private final @NonNull int[] to;
+
+        Flow(@NonNull Node[] nodes, @NonNull int[] from, @NonNull int[] to) {
+            this.nodes = nodes;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * @return new graph with the nodes and edges of this flow
+         */
+        @NonNull
+        DirectedAcyclicGraph build() {
+            DirectedAcyclicGraph graph = new DirectedAcyclicGraph();
+            for (Node node : nodes) {
+                graph.add(node);
+            }
+            for (int i = 0; i < from.length; i++) {
+                graph.connect(nodes[from[i]], nodes[to[i]]);
+            }
+            return graph;
+        }
+
+    }
+
+}
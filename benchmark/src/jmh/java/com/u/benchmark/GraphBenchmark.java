@@ -0,0 +1,61 @@
+package com.u.benchmark;
+
+import com.u.core.graph.DirectedAcyclicGraph;
+import com.u.core.node.Node;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Building, sorting and querying graphs of each shape and size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GraphBenchmark {
+
+    @Param({ "CHAIN", "FAN_OUT", "DIAMOND" })
+    public FlowShape shape;
+
+    @Param({ "10", "100", "1000", "10000", "100000" })
+    public int size;
+
+    private FlowShape.Flow flow;
+    private DirectedAcyclicGraph graph;
+
+    @Setup
+    public void setUp() {
+        flow = shape.generate(size);
+        graph = flow.build();
+    }
+
+    @Benchmark
+    public DirectedAcyclicGraph addAndConnect() {
+        return flow.build();
+    }
+
+    /**
+     * The sort is cached until the graph changes, so its measured along with building the graph.
+     * Subtract {@link #addAndConnect()} for the sort alone.
+     */
+    @Benchmark
+    public List<Node> addConnectAndSort() {
+        return flow.build().getAllNodesSorted();
+    }
+
+    @Benchmark
+    public void incomingEdges(Blackhole blackhole) {
+        for (Node node : flow.nodes) {
+            blackhole.consume(graph.getIncomingEdges(node));
+        }
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.u.benchmark;
+
+import com.u.core.MapArgs;
+import com.u.core.Router;
+import com.u.core.node.Node;
+import com.u.core.simulation.HeadlessNodeSwitcher;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Moving a router through graphs of each shape and size. The switcher renders nothing, so only
+ * the routing is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RouterBenchmark {
+
+    /**
+     * Max amount of nodes walked before going back to the root
+     */
+    private static final int WALK = 16;
+
+    @Param({ "CHAIN", "FAN_OUT", "DIAMOND" })
+    public FlowShape shape;
+
+    @Param({ "10", "100", "1000", "10000", "100000" })
+    public int size;
+
+    private Router<Class<?>> router;
+    private MapArgs args;
+    private Node root;
+    private String middleTag;
+    private int walk;
+
+    @Setup
+    public void setUp() {
+        FlowShape.Flow flow = shape.generate(size);
+        router = Router.<Class<?>>create()
+            .with(flow.build())
+            .switcher(new HeadlessNodeSwitcher())
+            .build();
+
+        args = new MapArgs()
+            .put(FlowShape.KEY_STEP, 1)
+            .put(FlowShape.KEY_LEAF, size / 2);
+
+        root = flow.nodes[0];
+        middleTag = FlowShape.tag(size / 2);
+
+        router.fromRoot();
+        walk = 0;
+        while (walk < WALK && router.next(args) != null) {
+            walk++;
+        }
+        router.back(root);
+    }
+
+    @Benchmark
+    public void nextAndBack(Blackhole blackhole) {
+        blackhole.consume(router.next(args));
+        blackhole.consume(router.back());
+    }
+
+    /**
+     * Clears the backstack each time, so the router always jumps from the same state
+     */
+    @Benchmark
+    public Object jumpByTag() {
+        return router.jump(middleTag);
+    }
+
+    @Benchmark
+    public void walkAndBackToRoot(Blackhole blackhole) {
+        for (int i = 0; i < walk; i++) {
+            blackhole.consume(router.next(args));
+        }
+        blackhole.consume(router.back(root));
+    }
+
+}
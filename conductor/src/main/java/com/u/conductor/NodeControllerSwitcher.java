@@ -4,28 +4,74 @@ import android.app.Activity;
 import android.os.Bundle;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
+import android.support.v4.util.LongSparseArray;
 import android.view.ViewGroup;
 import com.bluelinelabs.conductor.Conductor;
 import com.bluelinelabs.conductor.Controller;
+import com.bluelinelabs.conductor.ControllerChangeHandler;
 import com.bluelinelabs.conductor.Router;
 import com.bluelinelabs.conductor.RouterTransaction;
 import com.bluelinelabs.conductor.changehandler.HorizontalChangeHandler;
 import com.u.core.node.NodeSwitcher;
-import java.lang.reflect.Method;
+import java.lang.reflect.Constructor;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Created by saguilera on 6/11/17.
  */
 public class NodeControllerSwitcher implements NodeSwitcher<Controller> {
 
+    /**
+     * Default handlers. {@link HorizontalChangeHandler} keeps the state of the running animation,
+     * so a new one is created for each transaction.
+     */
+    private static final ChangeHandlerFactory DEFAULT_CHANGE_HANDLERS = new ChangeHandlerFactory() {
+        @Nullable
+        @Override
+        public ControllerChangeHandler create(@com.u.core.Router.Direction int how) {
+            return new HorizontalChangeHandler();
+        }
+    };
+
     private @NonNull Router router;
     private boolean forceClean;
 
+    private @NonNull ChangeHandlerFactory changeHandlers;
+
+    /**
+     * Constructor of each controller class, resolved once
+     */
+    private @NonNull Map<Class<?>, Constructor<?>> constructors;
+
+    /**
+     * Controllers created ahead of their commit
+     */
+    private @NonNull LongSparseArray<Controller> prefetched;
+
     public NodeControllerSwitcher(@NonNull Activity context,
             @NonNull ViewGroup container,
             @Nullable Bundle bundle) {
         this.router = Conductor.attachRouter(context, container, bundle);
         this.forceClean = true; // Since its the first time, force a clean.
+        this.changeHandlers = DEFAULT_CHANGE_HANDLERS;
+        this.constructors = new HashMap<>();
+        this.prefetched = new LongSparseArray<>();
+    }
+
+    /**
+     * Set the factory of the change handlers used for each direction of the flow. By default
+     * {@link HorizontalChangeHandler} is used.
+     *
+     * <b>Note:</b> Return the same instance on each call only if the handler doesnt keep state
+     * between changes, else create a new one.
+     *
+     * @param factory of change handlers
+     * @return switcher instance
+     */
+    public @NonNull NodeControllerSwitcher setChangeHandlerFactory(@NonNull ChangeHandlerFactory factory) {
+        this.changeHandlers = factory;
+        return this;
     }
 
     private void findTypeOrThrow(@NonNull Class<?> clazz) {
@@ -37,38 +83,76 @@ public class NodeControllerSwitcher implements NodeSwitcher<Controller> {
         }
     }
 
-    private @NonNull Controller createController(Class<?> clazz) {
-        try {
-            Method createStatic = Controller.class.getDeclaredMethod("newInstance", Bundle.class);
-            createStatic.setAccessible(true);
+    private @NonNull Constructor<?> getConstructor(@NonNull Class<?> clazz) {
+        Constructor<?> constructor = constructors.get(clazz);
+        if (constructor == null) {
+            findTypeOrThrow(clazz);
 
-            Bundle bundle = new Bundle();
-            // Save class name that is used inside
-            bundle.putString("Controller.className", clazz.getName());
+            // Same as conductor, prefer the args constructor over the default one
+            try {
+                constructor = clazz.getConstructor(Bundle.class);
+            } catch (NoSuchMethodException e) {
+                try {
+                    constructor = clazz.getConstructor();
+                } catch (NoSuchMethodException ex) {
+                    throw new IllegalStateException("Controller class: " + clazz.getName() +
+                        " must provide a public default or <init>(Bundle) constructor", ex);
+                }
+            }
 
-            return (Controller) createStatic.invoke(null, bundle);
+            constructors.put(clazz, constructor);
+        }
+        return constructor;
+    }
+
+    private @NonNull Controller createController(Class<?> clazz, long identifier) {
+        Controller controller = prefetched.get(identifier);
+        if (controller != null) {
+            prefetched.remove(identifier);
+            return controller;
+        }
+        return createController(clazz);
+    }
+
+    private @NonNull Controller createController(Class<?> clazz) {
+        Constructor<?> constructor = getConstructor(clazz);
+        try {
+            if (constructor.getParameterTypes().length == 0) {
+                return (Controller) constructor.newInstance();
+            } else {
+                return (Controller) constructor.newInstance(new Bundle());
+            }
         } catch (Exception e) {
             // Something was broken, this shouldnt happen
             throw new RuntimeException("Something broke, please check cause", e);
         }
     }
 
+    /**
+     * Transaction tag of a node identifier, built when needed since its only used when pushing and
+     * going back
+     */
+    private static @NonNull String getTag(long identifier) {
+        return String.valueOf(identifier);
+    }
+
+    private @NonNull RouterTransaction createTransaction(@NonNull Controller controller, long identifier) {
+        return RouterTransaction.with(controller)
+            .tag(getTag(identifier))
+            .pushChangeHandler(changeHandlers.create(com.u.core.Router.DIRECTION_FORWARD))
+            .popChangeHandler(changeHandlers.create(com.u.core.Router.DIRECTION_BACKWARD));
+    }
+
     private @NonNull Controller asRoot(final @NonNull Class<?> clazz, final long identifier) {
-        Controller controller = createController(clazz);
-        router.setRoot(
-            RouterTransaction.with(controller)
-                .tag(String.valueOf(identifier))
-                .pushChangeHandler(new HorizontalChangeHandler())
-                .popChangeHandler(new HorizontalChangeHandler())
-        );
+        Controller controller = createController(clazz, identifier);
+        router.setRoot(createTransaction(controller, identifier));
         return controller;
     }
 
     @Nullable
     @Override
     public Controller commit(@NonNull final Class<?> clazz, @com.u.core.Router.Direction final int how, final long identifier) {
-        findTypeOrThrow(clazz);
-
+        // Validated when resolving its constructor
         if (forceClean) {
             forceClean = false;
             return asRoot(clazz, identifier);
@@ -76,22 +160,18 @@ public class NodeControllerSwitcher implements NodeSwitcher<Controller> {
 
         switch (how) {
             case com.u.core.Router.DIRECTION_FORWARD:
-                Controller controller = createController(clazz);
-                router.pushController(
-                    RouterTransaction.with(controller)
-                        .tag(String.valueOf(identifier))
-                        .pushChangeHandler(new HorizontalChangeHandler())
-                        .popChangeHandler(new HorizontalChangeHandler())
-                );
+                Controller controller = createController(clazz, identifier);
+                router.pushController(createTransaction(controller, identifier));
                 return controller;
             case com.u.core.Router.DIRECTION_BACKWARD:
                 // If its backwards, first check the identifier isnt in the backstack (if it exists, just rollback to there)
-                if (!router.popToTag(String.valueOf(identifier), new HorizontalChangeHandler())) {
+                String tag = getTag(identifier);
+                if (!router.popToTag(tag, changeHandlers.create(com.u.core.Router.DIRECTION_BACKWARD))) {
                     // Wasnt in the backstack, so this is probably a jump with direction backwards or a back in a
                     // graph that is not cyclic, simply swap roots and is like a fresh start
                     return asRoot(clazz, identifier);
                 } else {
-                    return router.getControllerWithTag(String.valueOf(identifier));
+                    return router.getControllerWithTag(tag);
                 }
             default:
                 return null;
@@ -101,6 +181,40 @@ public class NodeControllerSwitcher implements NodeSwitcher<Controller> {
     @Override
     public void clearAll() {
         forceClean = true;
+        prefetched.clear();
+    }
+
+    @Override
+    public void skip(@NonNull Class<?> clazz, @com.u.core.Router.Direction int how, long identifier) {
+        // Nothing to track, the backstack only has the commited nodes
+    }
+
+    /**
+     * Creates the controller ahead of its commit. Its view is created once commited.
+     */
+    @Override
+    public void prefetch(@NonNull Class<?> clazz, long identifier) {
+        if (prefetched.get(identifier) == null) {
+            prefetched.put(identifier, createController(clazz));
+        }
+    }
+
+    @Override
+    public void cancelPrefetch(long identifier) {
+        prefetched.remove(identifier);
+    }
+
+    /**
+     * Factory of the change handlers used when commiting controllers
+     */
+    public interface ChangeHandlerFactory {
+        /**
+         * Get the change handler for a transition
+         * @param how direction of the flow. {@link com.u.core.Router#DIRECTION_FORWARD} for pushing a
+         *            controller and {@link com.u.core.Router#DIRECTION_BACKWARD} for popping it
+         * @return change handler, or null for the conductor default
+         */
+        @Nullable ControllerChangeHandler create(@com.u.core.Router.Direction int how);
     }
 
 }
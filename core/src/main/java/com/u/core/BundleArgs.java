@@ -0,0 +1,43 @@
+package com.u.core;
+
+import android.os.Bundle;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Flow args backed by a bundle.
+ */
+public final class BundleArgs implements FlowArgs {
+
+    private final @NonNull Bundle bundle;
+
+    /**
+     * Constructor
+     * @param bundle with the arguments. It must not be modified while the router reads it
+     */
+    public BundleArgs(@NonNull Bundle bundle) {
+        this.bundle = bundle;
+        // Unparcel now, so the bundle is only read if selectors run in other threads
+        bundle.isEmpty();
+    }
+
+    /**
+     * @return the bundle with the arguments
+     */
+    @NonNull
+    public Bundle getBundle() {
+        return bundle;
+    }
+
+    @Nullable
+    @Override
+    public Object get(@NonNull String key) {
+        return bundle.get(key);
+    }
+
+    @Override
+    public boolean containsKey(@NonNull String key) {
+        return bundle.containsKey(key);
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.u.core;
+
+import android.os.Bundle;
+import android.support.annotation.CheckResult;
+import android.support.annotation.NonNull;
+
+/**
+ * Saves and restores the state of a router in a bundle, so the flow survives process death.
+ *
+ * Eg:
+ * <pre>
+ *     protected void onSaveInstanceState(Bundle outState) {
+ *         super.onSaveInstanceState(outState);
+ *         BundleState.saveState(router, outState);
+ *     }
+ *
+ *     protected void onCreate(Bundle savedInstanceState) {
+ *         ...
+ *         if (savedInstanceState == null || !BundleState.restoreState(router, savedInstanceState)) {
+ *             router.fromRoot();
+ *         }
+ *     }
+ * </pre>
+ *
+ * The state is an int per decision plus a long, see {@link RouterState}.
+ */
+public final class BundleState {
+
+    private static final String KEY_DECISIONS = "com.u.core.BundleState.decisions";
+    private static final String KEY_FINGERPRINT = "com.u.core.BundleState.fingerprint";
+
+    private BundleState() {
+        // Only static methods
+    }
+
+    /**
+     * Save the state of the router, see {@link Router#saveState()}
+     * @param router to save
+     * @param bundle to save the state into
+     */
+    public static void saveState(@NonNull Router<?> router, @NonNull Bundle bundle) {
+        RouterState state = router.saveState();
+        bundle.putIntArray(KEY_DECISIONS, state.getDecisions());
+        bundle.putLong(KEY_FINGERPRINT, state.getFingerprint());
+    }
+
+    /**
+     * Restore the state of the router, see {@link Router#restoreState(RouterState)}
+     * @param router to restore
+     * @param bundle with a state saved by {@link #saveState(Router, Bundle)}
+     * @return true if the state was restored, false if there was nothing to restore
+     */
+    @CheckResult
+    public static boolean restoreState(@NonNull Router<?> router, @NonNull Bundle bundle) {
+        int[] decisions = bundle.getIntArray(KEY_DECISIONS);
+        if (decisions == null) {
+            return false;
+        }
+        return router.restoreState(new RouterState(decisions, bundle.getLong(KEY_FINGERPRINT)));
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.u.core;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.NonNull;
+import java.util.concurrent.Executor;
+
+/**
+ * Executor that posts the commands to the android main thread.
+ */
+public final class MainThreadExecutor implements Executor {
+
+    private final @NonNull Handler handler;
+
+    public MainThreadExecutor() {
+        this.handler = new Handler(Looper.getMainLooper());
+    }
+
+    @Override
+    public void execute(@NonNull Runnable command) {
+        handler.post(command);
+    }
+
+}
@@ -0,0 +1,29 @@
+package com.u.core.trace;
+
+import android.support.annotation.NonNull;
+import android.support.v4.os.TraceCompat;
+
+/**
+ * Tracer that writes the sections to the system trace, so they are visible in systrace and
+ * perfetto. Sections are only written from api 18, below it this does nothing.
+ */
+public final class SystraceTracer implements Tracer {
+
+    /**
+     * Longest section name the system trace accepts
+     */
+    private static final int MAX_SECTION_NAME_LENGTH = 127;
+
+    @Override
+    public void beginSection(@NonNull String name) {
+        TraceCompat.beginSection(name.length() > MAX_SECTION_NAME_LENGTH ?
+            name.substring(0, MAX_SECTION_NAME_LENGTH) :
+            name);
+    }
+
+    @Override
+    public void endSection() {
+        TraceCompat.endSection();
+    }
+
+}
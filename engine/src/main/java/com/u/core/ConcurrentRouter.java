@@ -0,0 +1,331 @@
+package com.u.core;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import com.u.core.node.Node;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Router that can be moved from any thread (eg. deep links, push notifications and the UI at the
+ * same time).
+ *
+ * The moves are queued and applied one at a time, in order, by a single writer: the given executor
+ * (eg. a {@code MainThreadExecutor} on android). Each move returns a future of the commited render
+ * object. The current node and the depth can be read from any thread without locking.
+ *
+ * <b>Note:</b> Once wrapped, the router shouldnt be used directly. Args must not be modified
+ * after being passed to a move.
+ *
+ * <b>Note:</b> Dont wait for a future in the thread of the writer (eg. in a switcher or a listener,
+ * or in the main thread if the writer is a {@code MainThreadExecutor}). The move can only run
+ * there after the wait, so it would never end. Waiting while a move is applied throws
+ * {@link IllegalStateException} instead.
+ */
+public final class ConcurrentRouter<RenderObject> {
+
+    private final @NonNull Router<RenderObject> router;
+    private final @NonNull Executor writer;
+
+    private final @NonNull ConcurrentLinkedQueue<Runnable> commands;
+    private final @NonNull AtomicBoolean draining;
+
+    /**
+     * Thread applying the moves, or null if none is being applied
+     */
+    private volatile @Nullable Thread drainingThread;
+
+    /**
+     * State of the router after the last applied move, replaced by the writer
+     */
+    private volatile @NonNull Snapshot snapshot;
+
+    private final @NonNull Runnable drainer = new Runnable() {
+        @Override
+        public void run() {
+            drainingThread = Thread.currentThread();
+            Runnable command;
+            while ((command = commands.poll()) != null) {
+                command.run();
+            }
+            drainingThread = null;
+            draining.set(false);
+
+            // A command could be queued after polling the last one and before releasing
+            if (!commands.isEmpty()) {
+                schedule();
+            }
+        }
+    };
+
+    /**
+     * Constructor
+     * @param router to wrap. If it coalesces commits or moves asynchronously, its main executor
+     *               should run in the writer too
+     * @param writer executor in which the moves are applied. It doesnt need to be serial
+     */
+    public ConcurrentRouter(@NonNull Router<RenderObject> router, @NonNull Executor writer) {
+        this.router = router;
+        this.writer = writer;
+        this.commands = new ConcurrentLinkedQueue<>();
+        this.draining = new AtomicBoolean();
+        this.snapshot = new Snapshot(router.getCurrentNode(), router.getDepth());
+    }
+
+    /**
+     * @return the current node after the last applied move, or null if the router wasnt started
+     */
+    @Nullable
+    public Node getCurrentNode() {
+        return snapshot.current;
+    }
+
+    /**
+     * @return amount of decisions in the backstack after the last applied move
+     */
+    public int getDepth() {
+        return snapshot.depth;
+    }
+
+    /**
+     * See {@link Router#addOnNodeCommitListener(Router.OnNodeCommitListener)}
+     * @param listener to notify of the event
+     * @return future done when the listener is added
+     */
+    @NonNull
+    public Future<Void> addOnNodeCommitListener(@NonNull final Router.OnNodeCommitListener<RenderObject> listener) {
+        return enqueue(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                router.addOnNodeCommitListener(listener);
+                return null;
+            }
+        });
+    }
+
+    /**
+     * See {@link Router#removeOnNodeCommitListener(Router.OnNodeCommitListener)}
+     * @param listener to remove
+     * @return future done when the listener is removed
+     */
+    @NonNull
+    public Future<Void> removeOnNodeCommitListener(@NonNull final Router.OnNodeCommitListener<RenderObject> listener) {
+        return enqueue(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                router.removeOnNodeCommitListener(listener);
+                return null;
+            }
+        });
+    }
+
+    /**
+     * See {@link Router#fromRoot()}
+     * @return future of the render object of the commited node
+     */
+    @NonNull
+    public Future<RenderObject> fromRoot() {
+        return enqueue(new Callable<RenderObject>() {
+            @Override
+            public RenderObject call() throws Exception {
+                return router.fromRoot();
+            }
+        });
+    }
+
+    /**
+     * See {@link Router#next(FlowArgs)}
+     * @param args with information for knowing which node to pick from the outgoing edges
+     * @return future of the render object of the commited node
+     */
+    @NonNull
+    public Future<RenderObject> next(@NonNull final FlowArgs args) {
+        return enqueue(new Callable<RenderObject>() {
+            @Override
+            public RenderObject call() throws Exception {
+                return router.next(args);
+            }
+        });
+    }
+
+    /**
+     * See {@link Router#back()}
+     * @return future of the render object of the commited node
+     */
+    @NonNull
+    public Future<RenderObject> back() {
+        return enqueue(new Callable<RenderObject>() {
+            @Override
+            public RenderObject call() throws Exception {
+                return router.back();
+            }
+        });
+    }
+
+    /**
+     * See {@link Router#back(Node)}
+     * @param node to go back
+     * @return future of the render object of the commited node
+     */
+    @NonNull
+    public Future<RenderObject> back(@NonNull final Node node) {
+        return enqueue(new Callable<RenderObject>() {
+            @Override
+            public RenderObject call() throws Exception {
+                return router.back(node);
+            }
+        });
+    }
+
+    /**
+     * See {@link Router#back(String)}
+     * @param tag of the node to go back
+     * @return future of the render object of the commited node
+     */
+    @NonNull
+    public Future<RenderObject> back(@NonNull final String tag) {
+        return enqueue(new Callable<RenderObject>() {
+            @Override
+            public RenderObject call() throws Exception {
+                return router.back(tag);
+            }
+        });
+    }
+
+    /**
+     * See {@link Router#jump(Node, int)}
+     * @param node to jump to
+     * @param movement with the direcion of the flow (eg for animations)
+     * @return future of the render object of the commited node
+     */
+    @NonNull
+    public Future<RenderObject> jump(@NonNull final Node node, @Router.Direction final int movement) {
+        return enqueue(new Callable<RenderObject>() {
+            @Override
+            public RenderObject call() throws Exception {
+                return router.jump(node, movement);
+            }
+        });
+    }
+
+    /**
+     * See {@link Router#jump(String, int)}
+     * @param tag of the node to jump to
+     * @param movement with the direcion of the flow (eg for animations)
+     * @return future of the render object of the commited node
+     */
+    @NonNull
+    public Future<RenderObject> jump(@NonNull final String tag, @Router.Direction final int movement) {
+        return enqueue(new Callable<RenderObject>() {
+            @Override
+            public RenderObject call() throws Exception {
+                return router.jump(tag, movement);
+            }
+        });
+    }
+
+    /**
+     * See {@link Router#saveState()}
+     * @return future of the state after the moves queued before
+     */
+    @NonNull
+    public Future<RouterState> saveState() {
+        return enqueue(new Callable<RouterState>() {
+            @Override
+            public RouterState call() throws Exception {
+                return router.saveState();
+            }
+        });
+    }
+
+    /**
+     * See {@link Router#restoreState(RouterState)}
+     * @param state to restore
+     * @return future of true if the state was restored, false if nothing was
+     */
+    @NonNull
+    public Future<Boolean> restoreState(@NonNull final RouterState state) {
+        return enqueue(new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                return router.restoreState(state);
+            }
+        });
+    }
+
+    @NonNull
+    private <T> Future<T> enqueue(@NonNull final Callable<T> command) {
+        FutureTask<T> task = new Move<>(new Callable<T>() {
+            @Override
+            public T call() throws Exception {
+                try {
+                    return command.call();
+                } finally {
+                    snapshot = new Snapshot(router.getCurrentNode(), router.getDepth());
+                }
+            }
+        });
+        commands.offer(task);
+        schedule();
+        return task;
+    }
+
+    private void schedule() {
+        if (draining.compareAndSet(false, true)) {
+            writer.execute(drainer);
+        }
+    }
+
+    /**
+     * Future of a queued move, that fails instead of waiting forever in the writer
+     */
+    private final class Move<T> extends FutureTask<T> {
+
+        Move(@NonNull Callable<T> callable) {
+            super(callable);
+        }
+
+        @Override
+        public T get() throws InterruptedException, ExecutionException {
+            checkNotDraining();
+            return super.get();
+        }
+
+        @Override
+        public T get(long timeout, @NonNull TimeUnit unit)
+                throws InterruptedException, ExecutionException, TimeoutException {
+            checkNotDraining();
+            return super.get(timeout, unit);
+        }
+
+        private void checkNotDraining() {
+            if (!isDone() && Thread.currentThread() == drainingThread) {
+                throw new IllegalStateException("Cant wait for a move in the writer, it is applied after the current one. Use the future from another thread");
+            }
+        }
+
+    }
+
+    /**
+     * Immutable state of the router, so both values are read consistently
+     */
+    private static final class Snapshot {
+
+        private final @Nullable Node current;
+        private final int depth;
+
+        Snapshot(@Nullable Node current, int depth) {
+            this.current = current;
+            this.depth = depth;
+        }
+
+    }
+
+}
@@ -0,0 +1,95 @@
+package com.u.core;
+
+import java.util.Arrays;
+
+/**
+ * Unsynchronized stack of node indexes (see {@link com.u.core.graph.Graph#indexOf}) backed by
+ * an int array that grows as needed.
+ */
+final class DecisionStack {
+
+    private static final int DEFAULT_CAPACITY = 8;
+
+    private int[] items;
+    private int size;
+
+    DecisionStack() {
+        this.items = new int[DEFAULT_CAPACITY];
+    }
+
+    void push(int index) {
+        if (size == items.length) {
+            items = Arrays.copyOf(items, size * 2);
+        }
+        items[size++] = index;
+    }
+
+    int peek() {
+        if (size == 0) {
+            throw new IllegalStateException("Decision stack is empty");
+        }
+        return items[size - 1];
+    }
+
+    int pop() {
+        int top = peek();
+        size--;
+        return top;
+    }
+
+    /**
+     * @param position from the bottom of the stack
+     * @return index stored at that position
+     */
+    int get(int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("Position: " + position + ", size: " + size);
+        }
+        return items[position];
+    }
+
+    /**
+     * Search the index from the top of the stack
+     * @param index to search
+     * @return position from the bottom of the stack, or -1 if it isnt present
+     */
+    int lastIndexOf(int index) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (items[i] == index) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Drop every element above the given size
+     * @param newSize of the stack
+     */
+    void truncate(int newSize) {
+        if (newSize < 0 || newSize > size) {
+            throw new IndexOutOfBoundsException("Size: " + newSize + ", current size: " + size);
+        }
+        size = newSize;
+    }
+
+    /**
+     * @return copy of the indexes, from the bottom of the stack
+     */
+    int[] toArray() {
+        return Arrays.copyOf(items, size);
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+}
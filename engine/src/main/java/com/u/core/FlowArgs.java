@@ -0,0 +1,26 @@
+package com.u.core;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Arguments of the flow, read by the selectors for knowing which node to pick.
+ *
+ * On android, wrap a bundle with {@code BundleArgs}. Elsewhere, use a {@link MapArgs}.
+ */
+public interface FlowArgs {
+
+    /**
+     * @param key of the argument
+     * @return value of the argument, or null if there is none
+     */
+    @Nullable
+    Object get(@NonNull String key);
+
+    /**
+     * @param key of the argument
+     * @return true if there is an argument for the key
+     */
+    boolean containsKey(@NonNull String key);
+
+}
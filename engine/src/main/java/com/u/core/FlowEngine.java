@@ -0,0 +1,45 @@
+package com.u.core;
+
+import android.support.annotation.NonNull;
+import com.u.core.graph.Graph;
+
+/**
+ * Runs the same flow for many sessions at once, eg. for driving the flow of many users in a backend.
+ *
+ * The graph is frozen once and shared by every session, which only keep the indexes of the nodes they
+ * traversed. So sessions are cheap and can be moved in parallel without locking.
+ */
+public final class FlowEngine {
+
+    private final @NonNull Graph graph;
+
+    /**
+     * Constructor
+     * @param graph of the flow. Its frozen (see {@link Graph#freeze()}), so later changes to it
+     *              dont affect the engine
+     */
+    public FlowEngine(@NonNull Graph graph) {
+        this.graph = graph.freeze();
+        if (this.graph.getRoot() == null) {
+            throw new IllegalStateException("Flow engine with empty graph is meaningless, please provide a non empty graph");
+        }
+    }
+
+    /**
+     * @return the frozen graph shared by the sessions
+     */
+    @NonNull
+    public Graph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Create a new session, not started yet
+     * @return session over the graph of the engine
+     */
+    @NonNull
+    public FlowSession newSession() {
+        return new FlowSession(graph);
+    }
+
+}
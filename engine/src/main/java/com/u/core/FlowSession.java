@@ -0,0 +1,133 @@
+package com.u.core;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import com.u.core.graph.Graph;
+import com.u.core.node.Node;
+import java.util.List;
+
+/**
+ * Position of a single user in a flow, created by {@link FlowEngine#newSession()}.
+ *
+ * It moves like a {@link Router} but renders nothing, so its state is only the stack of the
+ * indexes in the graph of the nodes traversed.
+ *
+ * A session is safe to use from many threads: its moves are synchronized on the session, so
+ * they happen one at a time. Different sessions of an engine dont share locks and can be moved
+ * in parallel.
+ */
+public final class FlowSession {
+
+    private final @NonNull Graph graph;
+    private final @NonNull DecisionStack decisions;
+
+    FlowSession(@NonNull Graph graph) {
+        this.graph = graph;
+        this.decisions = new DecisionStack();
+    }
+
+    /**
+     * @return the current node, or null if the session wasnt started
+     */
+    @Nullable
+    public synchronized Node getCurrentNode() {
+        return decisions.isEmpty() ? null : graph.getNodeAt(decisions.peek());
+    }
+
+    /**
+     * @return index in the graph of the current node, or -1 if the session wasnt started
+     */
+    public synchronized int getCurrentIndex() {
+        return decisions.isEmpty() ? -1 : decisions.peek();
+    }
+
+    /**
+     * @return amount of decisions in the backstack, including the current node
+     */
+    public synchronized int getDepth() {
+        return decisions.size();
+    }
+
+    /**
+     * Start the session from the root of the graph, clearing the backstack
+     * @return the root
+     */
+    @NonNull
+    public synchronized Node start() {
+        int index = Navigation.rootOf(graph);
+        decisions.clear();
+        decisions.push(index);
+        return graph.getNodeAt(index);
+    }
+
+    /**
+     * Move to the first outgoing edge of the current node that is selected with the args.
+     * See {@link Router#next(FlowArgs)}
+     * @param args with information for knowing which node to pick from the outgoing edges
+     * @return the new current node, or null if none was selected
+     */
+    @Nullable
+    public synchronized Node next(@NonNull FlowArgs args) {
+        if (decisions.isEmpty()) {
+            throw new IllegalStateException("Cant move forward if theres no start. Please call first start or jump");
+        }
+
+        int current = decisions.peek();
+        List<Node> outgoingEdges = graph.getOutgoingEdges(current);
+        if (outgoingEdges == null || outgoingEdges.isEmpty()) {
+            return null;
+        }
+
+        int selected = Navigation.selectCompiled(graph, current, args);
+        if (selected == Navigation.NOT_COMPILED) {
+            selected = Navigation.selectLinear(outgoingEdges, args, Navigation.DIRECT);
+        }
+        return selected < 0 ? null : graph.getNodeAt(Navigation.forward(graph, decisions, selected));
+    }
+
+    /**
+     * Move backwards. See {@link Router#back()}
+     * @return the new current node, or null if it couldnt move
+     */
+    @Nullable
+    public synchronized Node back() {
+        int index = Navigation.back(graph, decisions, Navigation.DIRECT);
+        return index < 0 ? null : graph.getNodeAt(index);
+    }
+
+    /**
+     * Move backwards until the node. This will throw {@link IllegalStateException} if the node
+     * wasnt already traversed.
+     * @param node to go back
+     * @return the node, as instanced in the graph
+     */
+    @NonNull
+    public synchronized Node back(@NonNull Node node) {
+        return graph.getNodeAt(Navigation.backTo(graph, decisions, node));
+    }
+
+    /**
+     * Jump to the node, clearing the backstack
+     * @param node to jump to
+     * @return the node, as instanced in the graph
+     */
+    @NonNull
+    public synchronized Node jump(@NonNull Node node) {
+        int index = Navigation.jumpTarget(graph, node);
+        decisions.clear();
+        decisions.push(index);
+        return graph.getNodeAt(index);
+    }
+
+    /**
+     * Jump to the node with the tag, clearing the backstack
+     * @param tag of the node to jump to
+     * @return the node, or null if there is no node with the tag
+     */
+    @Nullable
+    public Node jump(@NonNull String tag) {
+        Node node = graph.getNodeByTag(tag);
+        return node == null ? null : jump(node);
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.u.core;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Flow args backed by a map.
+ */
+public final class MapArgs implements FlowArgs {
+
+    private final @NonNull Map<String, Object> values;
+
+    public MapArgs() {
+        this.values = new HashMap<>();
+    }
+
+    /**
+     * Constructor
+     * @param values to copy
+     */
+    public MapArgs(@NonNull Map<String, ?> values) {
+        this.values = new HashMap<>(values);
+    }
+
+    /**
+     * Put an argument
+     * @param key of the argument
+     * @param value of the argument
+     * @return args instance
+     */
+    @NonNull
+    public MapArgs put(@NonNull String key, @Nullable Object value) {
+        values.put(key, value);
+        return this;
+    }
+
+    @Nullable
+    @Override
+    public Object get(@NonNull String key) {
+        return values.get(key);
+    }
+
+    @Override
+    public boolean containsKey(@NonNull String key) {
+        return values.containsKey(key);
+    }
+
+    @Override
+    public String toString() {
+        return "MapArgs" + values;
+    }
+
+}
@@ -0,0 +1,147 @@
+package com.u.core;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import com.u.core.graph.DecisionTable;
+import com.u.core.graph.Graph;
+import com.u.core.node.Node;
+import java.util.List;
+
+/**
+ * Moves over the decisions taken in a graph, shared by {@link Router} and {@link FlowSession} so
+ * both move the same way. Only the decisions are updated, commiting the nodes is up to the caller.
+ */
+final class Navigation {
+
+    /**
+     * Returned by {@link #selectCompiled} when the outgoing edges arent compiled
+     */
+    static final int NOT_COMPILED = -2;
+
+    /**
+     * Evaluates the selector of a node (eg. traced by the router)
+     */
+    interface Evaluator {
+        boolean select(@NonNull Node node, @Nullable FlowArgs args);
+    }
+
+    static final Evaluator DIRECT = new Evaluator() {
+        @Override
+        public boolean select(@NonNull Node node, @Nullable FlowArgs args) {
+            return node.select(args);
+        }
+    };
+
+    private Navigation() {
+        // Only static methods
+    }
+
+    /**
+     * @return index of the root of the graph
+     */
+    static int rootOf(@NonNull Graph graph) {
+        Node root = graph.getRoot();
+        if (root == null) {
+            throw new IllegalStateException("Router with empty graph is meaningless, please provide a non empty graph");
+        }
+        return graph.indexOf(root);
+    }
+
+    /**
+     * @return index of the node to jump to
+     */
+    static int jumpTarget(@NonNull Graph graph, @NonNull Node node) {
+        int index = graph.indexOf(node);
+        if (index < 0) {
+            throw new IllegalStateException("Node doesnt exist in the graph. Maybe you have mistakenly jumped?");
+        }
+        return index;
+    }
+
+    /**
+     * @param index of the current node
+     * @return position of the outgoing edge selected by the decision table of the node, -1 if none
+     * is, or {@link #NOT_COMPILED}
+     */
+    static int selectCompiled(@NonNull Graph graph, int index, @Nullable FlowArgs args) {
+        DecisionTable decisionTable = graph.getDecisionTable(index);
+        return decisionTable == null ? NOT_COMPILED : decisionTable.select(args);
+    }
+
+    /**
+     * @return position of the first outgoing edge selected, or -1 if none is
+     */
+    static int selectLinear(@NonNull List<Node> outgoingEdges, @Nullable FlowArgs args,
+            @NonNull Evaluator evaluator) {
+        for (int i = 0, size = outgoingEdges.size(); i < size; i++) {
+            if (evaluator.select(outgoingEdges.get(i), args)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Take the decision of moving to an outgoing edge of the current node
+     * @param position of the selected edge
+     * @return index of the new current node
+     */
+    static int forward(@NonNull Graph graph, @NonNull DecisionStack decisions, int position) {
+        int index = graph.getOutgoingEdgeIndex(decisions.peek(), position);
+        decisions.push(index);
+        return index;
+    }
+
+    /**
+     * Drop the last decision. Without decisions taken (eg. after a jump), the only incoming edge
+     * or else the first one selected with null args is the new start
+     * @return index of the new current node, or -1 if it cant move
+     */
+    static int back(@NonNull Graph graph, @NonNull DecisionStack decisions, @NonNull Evaluator evaluator) {
+        if (decisions.isEmpty()) {
+            return -1;
+        }
+
+        List<Node> incomingEdges = graph.getIncomingEdges(decisions.peek());
+        if (incomingEdges == null || incomingEdges.isEmpty()) {
+            // At the beginning
+            return -1;
+        }
+
+        if (decisions.size() > 1) {
+            decisions.pop();
+            return decisions.peek();
+        }
+
+        for (int i = 0, size = incomingEdges.size(); i < size; i++) {
+            Node edge = incomingEdges.get(i);
+            if (size == 1 || evaluator.select(edge, null)) {
+                int index = graph.indexOf(edge);
+                decisions.pop();
+                decisions.push(index);
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Drop the decisions taken after the node
+     * @return index of the node
+     */
+    static int backTo(@NonNull Graph graph, @NonNull DecisionStack decisions, @NonNull Node node) {
+        int index = graph.indexOf(node);
+        if (index < 0) {
+            throw new IllegalStateException("Node doesnt exist in the graph. Maybe you have mistakenly used back?");
+        }
+
+        int position = decisions.lastIndexOf(index);
+        if (position < 0) {
+            throw new IllegalStateException("Node wasnt already traversed. You cant go back to it if you havent gone through yet.");
+        }
+
+        decisions.truncate(position + 1);
+        return index;
+    }
+
+}
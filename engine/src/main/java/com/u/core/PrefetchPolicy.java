@@ -0,0 +1,143 @@
+package com.u.core;
+
+import android.support.annotation.NonNull;
+import com.u.core.graph.Graph;
+import com.u.core.node.Node;
+import com.u.core.node.NodeSwitcher;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Policy for prefetching the render objects of the nodes likely to be commited next.
+ *
+ * <p>After each commit, the outgoing edges of the current node are ranked by how many times they
+ * were selected before (ties keep the edge order), and the top ones are prefetched through
+ * {@link NodeSwitcher#prefetch(Class, long)}. Prefetches that are no longer candidates, because
+ * the flow went another way, are cancelled.</p>
+ *
+ * <p>A policy keeps statistics of a single router, dont share it.</p>
+ */
+public final class PrefetchPolicy {
+
+    private final int maxCandidates;
+    private final int maxPrefetched;
+
+    /**
+     * Times each node (by graph index) was selected in {@link Router#next}
+     */
+    private @NonNull int[] selections;
+
+    /**
+     * Node ids currently prefetched in the switcher
+     */
+    private final @NonNull long[] prefetched;
+    private int prefetchedSize;
+
+    private final @NonNull int[] candidates;
+    private final @NonNull long[] nextPrefetched;
+
+    /**
+     * Constructor.
+     * @param maxCandidates amount of outgoing edges to prefetch after each commit
+     * @param maxPrefetched budget of render objects prefetched at the same time, that havent
+     *                      been commited yet
+     */
+    public PrefetchPolicy(int maxCandidates, int maxPrefetched) {
+        if (maxCandidates < 1 || maxPrefetched < 1) {
+            throw new IllegalArgumentException("Prefetch candidates and budget must be positive");
+        }
+        this.maxCandidates = Math.min(maxCandidates, maxPrefetched);
+        this.maxPrefetched = maxPrefetched;
+        this.selections = new int[0];
+        this.prefetched = new long[maxPrefetched];
+        this.candidates = new int[this.maxCandidates];
+        this.nextPrefetched = new long[maxPrefetched];
+    }
+
+    void onSelected(int index) {
+        if (index >= selections.length) {
+            selections = Arrays.copyOf(selections, Math.max(index + 1, selections.length * 2));
+        }
+        selections[index]++;
+    }
+
+    private int selectionsOf(int index) {
+        return index < selections.length ? selections[index] : 0;
+    }
+
+    /**
+     * Forget every prefetch, the switcher has been cleared.
+     */
+    void reset() {
+        prefetchedSize = 0;
+    }
+
+    void onCommitted(@NonNull Graph graph, int current, long currentId, @NonNull NodeSwitcher<?> switcher) {
+        // The commited node consumed its prefetch, if it had one
+        remove(currentId);
+
+        List<Node> edges = graph.getOutgoingEdges(current);
+        int count = 0;
+        if (edges != null) {
+            // Insertion of the best ranked edges, keeping the edge order between ties
+            for (int i = 0, size = edges.size(); i < size; i++) {
+                int rank = selectionsOf(graph.getOutgoingEdgeIndex(current, i));
+                int position = count;
+                while (position > 0 && selectionsOf(graph.getOutgoingEdgeIndex(current, candidates[position - 1])) < rank) {
+                    if (position < candidates.length) {
+                        candidates[position] = candidates[position - 1];
+                    }
+                    position--;
+                }
+                if (position < candidates.length) {
+                    candidates[position] = i;
+                    count = Math.min(count + 1, candidates.length);
+                }
+            }
+        }
+
+        // Cancel the ones that arent candidates anymore
+        int kept = 0;
+        for (int i = 0; i < prefetchedSize; i++) {
+            long id = prefetched[i];
+            boolean candidate = false;
+            for (int j = 0; j < count && !candidate; j++) {
+                candidate = edges.get(candidates[j]).getId() == id;
+            }
+            if (candidate) {
+                nextPrefetched[kept++] = id;
+            } else {
+                switcher.cancelPrefetch(id);
+            }
+        }
+        System.arraycopy(nextPrefetched, 0, prefetched, 0, kept);
+        prefetchedSize = kept;
+
+        for (int i = 0; i < count && prefetchedSize < maxPrefetched; i++) {
+            Node node = edges.get(candidates[i]);
+            if (!contains(node.getId())) {
+                prefetched[prefetchedSize++] = node.getId();
+                switcher.prefetch(node.getDescriptor(), node.getId());
+            }
+        }
+    }
+
+    private boolean contains(long id) {
+        for (int i = 0; i < prefetchedSize; i++) {
+            if (prefetched[i] == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void remove(long id) {
+        for (int i = 0; i < prefetchedSize; i++) {
+            if (prefetched[i] == id) {
+                prefetched[i] = prefetched[--prefetchedSize];
+                return;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,1094 @@
+package com.u.core;
+
+import android.support.annotation.CheckResult;
+import android.support.annotation.IntDef;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import com.u.core.graph.CompiledGraph;
+import com.u.core.graph.Graph;
+import com.u.core.metrics.RouterMetrics;
+import com.u.core.node.Node;
+import com.u.core.node.NodeSwitcher;
+import com.u.core.trace.Tracer;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Entry point.
+ * Created by saguilera on 6/10/17.
+ */
+public final class Router<RenderObject> {
+
+    public static final int DIRECTION_NONE = 0;
+    public static final int DIRECTION_FORWARD = 1;
+    public static final int DIRECTION_BACKWARD = 2;
+
+    private static final ListenerEntry<?>[] NO_LISTENERS = new ListenerEntry<?>[0];
+    private static final int DEFAULT_PENDING_CAPACITY = 4;
+    private static final Node[] NO_STEPS = new Node[0];
+
+    private @NonNull Graph graph;
+    /**
+     * Indexes in the graph of the nodes traversed, the top being the current one.
+     */
+    private final @NonNull DecisionStack decisions;
+
+    /**
+     * Registered listeners, in order. The array is replaced (never modified) when adding or removing
+     * a listener, so a dispatch isnt affected by listeners changed meanwhile.
+     */
+    private volatile @NonNull ListenerEntry<RenderObject>[] onNodeCommitListeners;
+    private final @NonNull IdentityHashMap<OnNodeCommitListener<RenderObject>, ListenerEntry<RenderObject>> listenerEntries;
+
+    private @NonNull NodeSwitcher<RenderObject> nodeSwitcher;
+
+    private final @Nullable PrefetchPolicy prefetchPolicy;
+    private final @Nullable SelectionMemo selectionMemo;
+
+    private final @Nullable Executor selectorExecutor;
+    private final @Nullable Executor mainExecutor;
+
+    /**
+     * Null when metrics are disabled, so nothing is measured
+     */
+    private final @Nullable RouterMetrics metrics;
+
+    /**
+     * Null when tracing is disabled
+     */
+    private final @Nullable Tracer tracer;
+
+    /**
+     * When coalescing, nodes commited since the last switcher commit and the movement of each one
+     */
+    private final boolean coalesce;
+    private final @NonNull ArrayList<Node> pendingSteps;
+    private @NonNull int[] pendingMovements;
+    private boolean pendingClear;
+    /**
+     * Position of the first pending step after the last fresh start. The steps before it belong to
+     * a flow the switcher is cleared of
+     */
+    private int pendingStart;
+
+    private final @NonNull Runnable pendingFlusher = new Runnable() {
+        @Override
+        public void run() {
+            flushPending();
+        }
+    };
+
+    /**
+     * Incremented on each commit, for knowing if the flow moved while selecting asynchronously.
+     */
+    private int navigations;
+
+    /**
+     * Traced selectors, for the moves shared with the sessions
+     */
+    private final @NonNull Navigation.Evaluator evaluator = new Navigation.Evaluator() {
+        @Override
+        public boolean select(@NonNull Node node, @Nullable FlowArgs args) {
+            return Router.this.select(node, args);
+        }
+    };
+
+    @Retention(RetentionPolicy.SOURCE)
+    @IntDef({ DIRECTION_NONE, DIRECTION_FORWARD, DIRECTION_BACKWARD })
+    public @interface Direction {}
+
+    /**
+     * Package protected constructor that initializes stabilized
+     * @param builder with the node switcher, the graph and the optional parameters
+     */
+    Router(@NonNull Builder<RenderObject> builder) {
+        this.graph = builder.graph;
+        this.nodeSwitcher = builder.nodeSwitcher;
+        this.prefetchPolicy = builder.prefetchPolicy;
+        this.selectionMemo = builder.memoCapacity > 0 ? new SelectionMemo(builder.memoCapacity) : null;
+        this.selectorExecutor = builder.selectorExecutor;
+        this.mainExecutor = builder.mainExecutor;
+        this.metrics = builder.metrics;
+        this.tracer = builder.tracer;
+        this.coalesce = builder.coalesce;
+        this.pendingSteps = new ArrayList<>();
+        this.pendingMovements = new int[DEFAULT_PENDING_CAPACITY];
+        this.decisions = new DecisionStack();
+        this.onNodeCommitListeners = emptyListeners();
+        this.listenerEntries = new IdentityHashMap<>();
+    }
+
+    /**
+     * Adds a listener to be notified when a node from the graph is commited inside the container.
+     *
+     * <b>Note:</b>Careful the listeners are kept as <b>STRONG REFERENCES</b>, please if not using isolated classes
+     * remember to remove them with {@link #removeOnNodeCommitListener(OnNodeCommitListener)}
+     *
+     * @param listener to notify of the event
+     * @return router instance
+     */
+    @NonNull
+    public Router<RenderObject> addOnNodeCommitListener(@NonNull OnNodeCommitListener<RenderObject> listener) {
+        return addListener(listener, null);
+    }
+
+    /**
+     * Adds a listener to be notified in an executor when a node from the graph is commited inside
+     * the container, so slow listeners (eg. analytics) dont delay the commits.
+     *
+     * <b>Note:</b>Careful the listeners are kept as <b>STRONG REFERENCES</b>, please if not using isolated classes
+     * remember to remove them with {@link #removeOnNodeCommitListener(OnNodeCommitListener)}
+     *
+     * @param listener to notify of the event
+     * @param executor in which the listener is notified
+     * @return router instance
+     */
+    @NonNull
+    public Router<RenderObject> addOnNodeCommitListener(@NonNull OnNodeCommitListener<RenderObject> listener,
+            @NonNull Executor executor) {
+        return addListener(listener, executor);
+    }
+
+    @NonNull
+    private Router<RenderObject> addListener(@NonNull OnNodeCommitListener<RenderObject> listener,
+            @Nullable Executor executor) {
+        if (!listenerEntries.containsKey(listener)) {
+            ListenerEntry<RenderObject> entry = new ListenerEntry<>(listener, executor);
+            listenerEntries.put(listener, entry);
+
+            ListenerEntry<RenderObject>[] current = onNodeCommitListeners;
+            ListenerEntry<RenderObject>[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = entry;
+            onNodeCommitListeners = updated;
+        }
+        return this;
+    }
+
+    /**
+     * Remove a listener from the list.
+     * @param listener to remove
+     * @return instance of the router
+     */
+    @NonNull
+    public Router<RenderObject> removeOnNodeCommitListener(@NonNull OnNodeCommitListener<RenderObject> listener) {
+        ListenerEntry<RenderObject> entry = listenerEntries.remove(listener);
+        if (entry != null) {
+            ListenerEntry<RenderObject>[] current = onNodeCommitListeners;
+            ListenerEntry<RenderObject>[] updated = Arrays.copyOf(current, current.length - 1);
+            for (int i = 0, j = 0; i < current.length; i++) {
+                if (current[i] != entry) {
+                    updated[j++] = current[i];
+                }
+            }
+            onNodeCommitListeners = updated;
+        }
+        return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    @NonNull
+    private static <RenderObject> ListenerEntry<RenderObject>[] emptyListeners() {
+        return (ListenerEntry<RenderObject>[]) NO_LISTENERS;
+    }
+
+    /**
+     * Commits a node in the graph to the supplied view
+     * @param node to show
+     * @param movement with the direcion of the flow (eg for animations)
+     * @return the render object (view/fragment/etc) commited to the parent, or null if the commit
+     * is coalesced
+     */
+    @Nullable
+    private RenderObject commit(@Nullable Node node, @Direction int movement) {
+        if (node == null) {
+            return null;
+        }
+
+        navigations++;
+        if (coalesce) {
+            pendingSteps.add(node);
+            int position = pendingSteps.size() - 1;
+            if (position == pendingMovements.length) {
+                pendingMovements = Arrays.copyOf(pendingMovements, position * 2);
+            }
+            pendingMovements[position] = movement;
+
+            // Scheduled once the step is added, since the executor may run it right away
+            if (position == 0) {
+                mainExecutor.execute(pendingFlusher);
+            }
+            return null;
+        }
+
+        RenderObject renderObject = render(node, movement);
+        dispatchCommit(node, renderObject);
+        onCommitted(node);
+        return renderObject;
+    }
+
+    /**
+     * Commit the last node of the coalesced steps, and notify the listeners of every step. Only the
+     * last one is notified with the render object. The switcher is told of the skipped steps, so it
+     * can keep track of the backstack.
+     */
+    private void flushPending() {
+        if (pendingClear) {
+            pendingClear = false;
+            nodeSwitcher.clearAll();
+        }
+
+        int last = pendingSteps.size() - 1;
+        if (last < 0) {
+            return;
+        }
+
+        for (int i = pendingStart; i < last; i++) {
+            Node skipped = pendingSteps.get(i);
+            nodeSwitcher.skip(skipped.getDescriptor(), pendingMovements[i], skipped.getId());
+        }
+
+        // Taken out before rendering, so moves done meanwhile (eg. by a listener) start a new batch
+        Node node = pendingSteps.get(last);
+        @Direction int movement = pendingMovements[last];
+        Node[] steps = last == 0 ? NO_STEPS : pendingSteps.subList(0, last).toArray(new Node[last]);
+        pendingSteps.clear();
+        pendingStart = 0;
+
+        RenderObject renderObject = render(node, movement);
+        for (Node step : steps) {
+            dispatchCommit(step, null);
+        }
+        dispatchCommit(node, renderObject);
+        onCommitted(node);
+    }
+
+    @Nullable
+    private RenderObject render(@NonNull Node node, @Direction int movement) {
+        long start = metrics != null ? System.nanoTime() : 0;
+        if (tracer != null) {
+            tracer.beginSection(sectionName("commit ", node));
+        }
+        try {
+            return nodeSwitcher.commit(node.getDescriptor(), movement, node.getId());
+        } finally {
+            if (tracer != null) {
+                tracer.endSection();
+            }
+            if (metrics != null) {
+                metrics.onSwitcherCommit(node, System.nanoTime() - start);
+            }
+        }
+    }
+
+    private void dispatchCommit(@NonNull Node node, @Nullable RenderObject renderObject) {
+        long start = metrics != null ? System.nanoTime() : 0;
+        if (tracer != null) {
+            tracer.beginSection(sectionName("listeners ", node));
+        }
+        try {
+            for (ListenerEntry<RenderObject> entry : onNodeCommitListeners) {
+                entry.dispatch(renderObject, node.getTag());
+            }
+        } finally {
+            if (tracer != null) {
+                tracer.endSection();
+            }
+            if (metrics != null) {
+                metrics.onListenersDispatch(node, System.nanoTime() - start);
+            }
+        }
+    }
+
+    private void onCommitted(@NonNull Node node) {
+        if (metrics != null) {
+            metrics.onDecisionDepth(node, decisions.size());
+        }
+        if (prefetchPolicy != null) {
+            // The commited node is always the top of the decisions
+            prefetchPolicy.onCommitted(graph, decisions.peek(), node.getId(), nodeSwitcher);
+        }
+    }
+
+    /**
+     * Evaluate the selector of a node, traced if enabled
+     * @param node to select
+     * @param args for the selector
+     * @return if the node is selected
+     */
+    private boolean select(@NonNull Node node, @Nullable FlowArgs args) {
+        if (tracer == null) {
+            return node.select(args);
+        }
+
+        tracer.beginSection(sectionName("select ", node));
+        try {
+            return node.select(args);
+        } finally {
+            tracer.endSection();
+        }
+    }
+
+    @NonNull
+    private static String sectionName(@NonNull String prefix, @NonNull Node node) {
+        String tag = node.getTag();
+        return prefix + (tag != null ? tag : node.getDescriptor().getSimpleName());
+    }
+
+    /**
+     * Clear the decisions, the render objects of the node switcher and the memoized selections,
+     * for a fresh start
+     */
+    private void reset() {
+        decisions.clear();
+        if (coalesce) {
+            // Cleared before the next coalesced commit
+            pendingClear = true;
+            pendingStart = pendingSteps.size();
+        } else {
+            nodeSwitcher.clearAll();
+        }
+        if (prefetchPolicy != null) {
+            prefetchPolicy.reset();
+        }
+        if (selectionMemo != null) {
+            selectionMemo.clear();
+        }
+    }
+
+    /**
+     * Possibly the always first entry point of the router.
+     * This method commits the root of the graph to the container.
+     *
+     * <b>Note:</b>Calling this method will always make it like a "fresh" start.
+     *
+     * @return object rendered from the root node
+     */
+    @Nullable
+    @CheckResult
+    public RenderObject fromRoot() {
+        if (tracer == null) {
+            return moveToRoot();
+        }
+
+        tracer.beginSection("Router.fromRoot");
+        try {
+            return moveToRoot();
+        } finally {
+            tracer.endSection();
+        }
+    }
+
+    @Nullable
+    private RenderObject moveToRoot() {
+        int index = Navigation.rootOf(graph);
+
+        reset();
+
+        // Add the root and commit it
+        decisions.push(index);
+        return commit(graph.getNodeAt(index), DIRECTION_NONE);
+    }
+
+    /**
+     * Move in the graph to the next node according to the args provided.
+     * Eg we have a graph:
+     * A (age picker) -> B (age > 18)
+     *               \_> C (age <= 18)
+     * And we are at node A and the user inputs his age.
+     * We create args that contain { "age": 23 } and we call this method,
+     * This will make B to be commited to the parent. (and not C because 23 > 18)
+     *
+     * For information on how to "pick" a node see {@link Node#select(FlowArgs)}
+     *
+     * @param args with information for knowing which node to pick from the outgoing edges
+     * @return render object of the commited node
+     */
+    @Nullable
+    @CheckResult
+    public RenderObject next(@NonNull FlowArgs args) {
+        if (tracer == null) {
+            return moveNext(args);
+        }
+
+        tracer.beginSection("Router.next");
+        try {
+            return moveNext(args);
+        } finally {
+            tracer.endSection();
+        }
+    }
+
+    @Nullable
+    private RenderObject moveNext(@NonNull FlowArgs args) {
+        if (decisions.isEmpty()) {
+            throw new IllegalStateException("Cant move forward if theres no start. Please call first fromRoot or jump");
+        }
+
+        int current = decisions.peek();
+        List<Node> outgoingEdges = graph.getOutgoingEdges(current);
+        if (outgoingEdges == null || outgoingEdges.isEmpty()) {
+            //we are at the end
+            return null;
+        }
+
+        int selected;
+        if (metrics != null) {
+            long start = System.nanoTime();
+            selected = select(current, outgoingEdges, args);
+            metrics.onSelection(graph.getNodeAt(current), System.nanoTime() - start);
+        } else {
+            selected = select(current, outgoingEdges, args);
+        }
+
+        return selected < 0 ? null : moveForward(graph.getOutgoingEdgeIndex(current, selected));
+    }
+
+    /**
+     * Find the outgoing edge to move forward to
+     * @param index of the current node in the graph
+     * @param outgoingEdges of the current node
+     * @param args with information for knowing which node to pick
+     * @return position of the selected edge, or -1 if none is selected
+     */
+    private int select(int index, @NonNull List<Node> outgoingEdges, @NonNull FlowArgs args) {
+        // Compiled conditions find the edge without asking each selector
+        int compiled = Navigation.selectCompiled(graph, index, args);
+        if (compiled != Navigation.NOT_COMPILED) {
+            return compiled;
+        }
+
+        boolean memoize = false;
+        if (selectionMemo != null) {
+            int memoized = selectionMemo.get(index, outgoingEdges, args);
+            if (memoized >= -1) {
+                return memoized;
+            }
+            memoize = memoized == SelectionMemo.MISS;
+        }
+
+        int selected = Navigation.selectLinear(outgoingEdges, args, evaluator);
+        if (memoize) {
+            selectionMemo.put(selected);
+        }
+        return selected;
+    }
+
+    /**
+     * @param index in the graph of the selected outgoing edge
+     */
+    @Nullable
+    private RenderObject moveForward(int index) {
+        if (prefetchPolicy != null) {
+            prefetchPolicy.onSelected(index);
+        }
+        decisions.push(index);
+        return commit(graph.getNodeAt(index), DIRECTION_FORWARD);
+    }
+
+    /**
+     * Same as {@link #next(FlowArgs)}, but the selectors are evaluated in the selector executor
+     * (see {@link Builder#selectorExecutor(Executor)}) instead of the caller thread. Selectors of the
+     * outgoing edges that are {@link com.u.core.node.AsyncNodeSelector} run in parallel, the others run
+     * in edge order. The first edge (in edge order) that is selected is commited, in the main executor.
+     *
+     * @param args with information for knowing which node to pick from the outgoing edges. It must
+     *               not be modified until the callback is notified
+     * @param callback notified in the main executor with the render object of the commited node, or
+     *                 the error of a failed selector
+     */
+    public void nextAsync(@NonNull FlowArgs args, @NonNull NextCallback<RenderObject> callback) {
+        nextAsync(args, 0, TimeUnit.MILLISECONDS, null, callback);
+    }
+
+    /**
+     * Same as {@link #nextAsync(FlowArgs, NextCallback)}, with a timeout.
+     *
+     * If the selection isnt done after the timeout, the fallback is commited instead. Async selectors
+     * are awaited until the timeout, and the others arent evaluated after it. One already running
+     * isnt interrupted, but its result is dropped if it finishes after the timeout.
+     *
+     * If the flow is moved (eg. with {@link #back()}) before the selection finishes, nothing is commited
+     * and the callback receives null.
+     *
+     * @param args with information for knowing which node to pick from the outgoing edges. It must
+     *               not be modified until the callback is notified
+     * @param timeout for the selection, 0 for waiting until its done
+     * @param unit of the timeout
+     * @param fallback outgoing edge to commit when timing out, or null for not moving
+     * @param callback notified in the main executor with the render object of the commited node, or
+     *                 the error of a failed selector
+     */
+    public void nextAsync(@NonNull final FlowArgs args,
+            final long timeout,
+            @NonNull final TimeUnit unit,
+            @Nullable final Node fallback,
+            @NonNull final NextCallback<RenderObject> callback) {
+        if (decisions.isEmpty()) {
+            throw new IllegalStateException("Cant move forward if theres no start. Please call first fromRoot or jump");
+        }
+        if (selectorExecutor == null) {
+            throw new IllegalStateException("Missing selector executor for moving asynchronously. Please provide one in the builder");
+        }
+        if (mainExecutor == null) {
+            throw new IllegalStateException("Missing main executor for moving asynchronously. Please provide one in the builder");
+        }
+
+        final List<Node> outgoingEdges = graph.getOutgoingEdges(decisions.peek());
+        if (fallback != null && (outgoingEdges == null || !outgoingEdges.contains(fallback))) {
+            throw new IllegalArgumentException("Fallback node: " + fallback + " isnt an outgoing edge of the current node");
+        }
+
+        final int generation = navigations;
+        final int currentIndex = decisions.peek();
+        final Node current = graph.getNodeAt(currentIndex);
+        final int fallbackPosition = fallback == null ? -1 : outgoingEdges.indexOf(fallback);
+        final int size = outgoingEdges == null ? 0 : outgoingEdges.size();
+
+        // The timeout counts from now, so it includes the time queued in a busy executor
+        final long start = System.nanoTime();
+        final long deadline = timeout > 0 ? start + unit.toNanos(timeout) : 0;
+
+        // Start the async selectors first, so they run in parallel with the coordinator
+        final List<FutureTask<Boolean>> tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final Node edge = outgoingEdges.get(i);
+            if (edge.isSelectorAsync()) {
+                FutureTask<Boolean> task = new FutureTask<>(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() throws Exception {
+                        return select(edge, args);
+                    }
+                });
+                tasks.add(task);
+                selectorExecutor.execute(task);
+            } else {
+                tasks.add(null);
+            }
+        }
+
+        selectorExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                int selected = -1;
+                RuntimeException failure = null;
+
+                try {
+                    for (int i = 0; i < size && selected < 0; i++) {
+                        Node edge = outgoingEdges.get(i);
+                        FutureTask<Boolean> task = tasks.get(i);
+
+                        if (deadline != 0 && System.nanoTime() - deadline >= 0) {
+                            throw new TimeoutException();
+                        }
+
+                        // Async selectors are only awaited, never run here, so the timeout holds even
+                        // if the executor hasnt started them. They were queued before the coordinator
+                        boolean select;
+                        if (task == null) {
+                            select = select(edge, args);
+                            // A slow selector can take us past the deadline, its result is late then
+                            if (deadline != 0 && System.nanoTime() - deadline >= 0) {
+                                throw new TimeoutException();
+                            }
+                        } else if (deadline == 0) {
+                            select = task.get();
+                        } else {
+                            select = task.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                        }
+
+                        if (select) {
+                            selected = i;
+                        }
+                    }
+                } catch (TimeoutException e) {
+                    selected = fallbackPosition;
+                } catch (ExecutionException e) {
+                    failure = new RuntimeException("Node selector failed", e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    selected = -1;
+                } catch (CancellationException e) {
+                    selected = -1;
+                } catch (RuntimeException e) {
+                    failure = e;
+                } finally {
+                    // Nothing else needs to be evaluated
+                    for (FutureTask<Boolean> task : tasks) {
+                        if (task != null) {
+                            task.cancel(false);
+                        }
+                    }
+                }
+
+                if (metrics != null) {
+                    metrics.onSelection(current, System.nanoTime() - start);
+                }
+
+                final int result = selected;
+                final RuntimeException error = failure;
+                mainExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (error != null) {
+                            callback.onError(error);
+                            return;
+                        }
+                        if (result < 0 || generation != navigations) {
+                            callback.onNext(null);
+                        } else {
+                            callback.onNext(moveForward(graph.getOutgoingEdgeIndex(currentIndex, result)));
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Move the flow backwards. Read the code to see how the flow is decided
+     * <b>Note:</b> If a jump is performed, the backstack is cleared. So if you call this method after
+     * a jump, it will check for the incoming edges and ask to each of them which to call with 'null' args.
+     * If none is selectable, it wont do anything
+     *
+     * For checking if back has commited a node or not, check that the result is != null.
+     *
+     * @return render object of the commited node.
+     */
+    @Nullable
+    @CheckResult
+    public RenderObject back() {
+        if (tracer == null) {
+            return moveBack();
+        }
+
+        tracer.beginSection("Router.back");
+        try {
+            return moveBack();
+        } finally {
+            tracer.endSection();
+        }
+    }
+
+    @Nullable
+    private RenderObject moveBack() {
+        int index = Navigation.back(graph, decisions, evaluator);
+        return index < 0 ? null : commit(graph.getNodeAt(index), DIRECTION_BACKWARD);
+    }
+
+    /**
+     * Move the flow backwards until the node asked. This will throw {@link IllegalStateException} if
+     * the node wasnt already traversed in the flow.
+     *
+     * @param node to go back
+     * @return object rendered from the node
+     */
+    @Nullable
+    @CheckResult
+    public RenderObject back(@NonNull Node node) {
+        if (tracer == null) {
+            return moveBack(node);
+        }
+
+        tracer.beginSection("Router.back");
+        try {
+            return moveBack(node);
+        } finally {
+            tracer.endSection();
+        }
+    }
+
+    @Nullable
+    private RenderObject moveBack(@NonNull Node node) {
+        // The graph instance is commited, since an equal node from elsewhere has another id
+        int index = Navigation.backTo(graph, decisions, node);
+        return commit(graph.getNodeAt(index), DIRECTION_BACKWARD);
+    }
+
+    /**
+     * Move the flow backwards until the node asked. This will throw {@link IllegalStateException} if
+     * the node wasnt already traversed in the flow.
+     *
+     * @param tag of the node to go back
+     * @return object rendered from the node
+     */
+    @Nullable
+    @CheckResult
+    public RenderObject back(@NonNull String tag) {
+        Node node = graph.getNodeByTag(tag);
+
+        if (node != null) {
+            return back(node);
+        }
+
+        throw new IllegalStateException("No node found in the graph for the specified tag: " + tag);
+    }
+
+    /**
+     * Jump to the node.
+     * This will clear the previous backstack.
+     * @param node to jump to
+     * @return object rendered from the node
+     */
+    @Nullable
+    @CheckResult
+    public RenderObject jump(@NonNull Node node) {
+        return jump(node, DIRECTION_NONE);
+    }
+
+    /**
+     * Jump to the node.
+     * This will clear the previous backstack.
+     * @param node to jump to
+     * @param movement with the direcion of the flow (eg for animations)
+     * @return object rendered from the node
+     */
+    @Nullable
+    @CheckResult
+    public RenderObject jump(@NonNull Node node, @Direction int movement) {
+        if (tracer == null) {
+            return moveTo(node, movement);
+        }
+
+        tracer.beginSection("Router.jump");
+        try {
+            return moveTo(node, movement);
+        } finally {
+            tracer.endSection();
+        }
+    }
+
+    @Nullable
+    private RenderObject moveTo(@NonNull Node node, @Direction int movement) {
+        int index = Navigation.jumpTarget(graph, node);
+        reset();
+        decisions.push(index);
+        return commit(graph.getNodeAt(index), movement);
+    }
+
+    /**
+     * Jump to the node.
+     * This will clear the previous backstack.
+     * @param tag of the node to jump to
+     * @return object rendered from the node
+     */
+    @Nullable
+    @CheckResult
+    public RenderObject jump(@NonNull String tag) {
+        return jump(tag, DIRECTION_NONE);
+    }
+
+    /**
+     * Jump to the node.
+     * This will clear the previous backstack.
+     * @param tag of the node to jump to
+     * @param movement with the direcion of the flow (eg for animations)
+     * @return object rendered from the node
+     */
+    @Nullable
+    @CheckResult
+    public RenderObject jump(@NonNull String tag, @Direction int movement) {
+        Node node = graph.getNodeByTag(tag);
+
+        if (node != null) {
+            return jump(node, movement);
+        }
+
+        return null;
+    }
+
+    /**
+     * Save the decisions taken so far, so they can be restored after the process dies with
+     * {@link #restoreState(RouterState)}. Nothing is rendered nor selected.
+     * @return state of the router
+     */
+    @NonNull
+    public RouterState saveState() {
+        return new RouterState(decisions.toArray(), RouterState.fingerprintOf(graph));
+    }
+
+    /**
+     * Restore the decisions of a saved state, as a fresh start. Only the current node is commited,
+     * the previous ones are commited when going back to them. Selectors arent evaluated again.
+     *
+     * If the state belongs to another graph (eg. the graph changed in an update) nothing is
+     * restored, and the router should be started again with {@link #fromRoot()}.
+     *
+     * The rendered object isnt returned, since it can be null for a restored state too (eg. when
+     * coalescing commits). Use a {@link OnNodeCommitListener} for it.
+     *
+     * @param state saved with {@link #saveState()}
+     * @return true if the state was restored, false if nothing was
+     */
+    @CheckResult
+    public boolean restoreState(@NonNull RouterState state) {
+        if (tracer == null) {
+            return moveToState(state);
+        }
+
+        tracer.beginSection("Router.restoreState");
+        try {
+            return moveToState(state);
+        } finally {
+            tracer.endSection();
+        }
+    }
+
+    @Nullable
+    private boolean moveToState(@NonNull RouterState state) {
+        int[] restored = state.getDecisions();
+        if (restored.length == 0 || state.getFingerprint() != RouterState.fingerprintOf(graph)) {
+            return false;
+        }
+        for (int index : restored) {
+            if (index < 0 || index >= graph.size()) {
+                return false;
+            }
+        }
+
+        reset();
+        for (int index : restored) {
+            decisions.push(index);
+        }
+        commit(graph.getNodeAt(decisions.peek()), DIRECTION_NONE);
+        return true;
+    }
+
+    /**
+     * @return the current node of the flow, or null if the router wasnt started
+     */
+    @Nullable
+    public Node getCurrentNode() {
+        return decisions.isEmpty() ? null : graph.getNodeAt(decisions.peek());
+    }
+
+    /**
+     * @return amount of decisions in the backstack, including the current node
+     */
+    public int getDepth() {
+        return decisions.size();
+    }
+
+    /**
+     * Create a new builder of routers
+     * @param <RenderObject> that will output the nodes
+     * @return Builder of routers
+     */
+    public static @NonNull <RenderObject> Router.Builder<RenderObject> create() {
+        return new Builder<RenderObject>();
+    }
+
+    /**
+     * Static inner class for creating stable instances of routers
+     * @param <RenderObject> that will output from nodes
+     */
+    public static class Builder<RenderObject> {
+
+        private Graph graph;
+        private NodeSwitcher<RenderObject> nodeSwitcher;
+        private PrefetchPolicy prefetchPolicy;
+        private Executor selectorExecutor;
+        private Executor mainExecutor;
+        private int memoCapacity;
+        private RouterMetrics metrics;
+        private Tracer tracer;
+        private boolean coalesce;
+
+        /**
+         * Constructor.
+         */
+        public Builder() {
+            // Default constructor
+        }
+
+        /**
+         * Graph from which the router feeds
+         * @param graph graph
+         * @return builder instance
+         */
+        public @NonNull Builder<RenderObject> with(@NonNull Graph graph) {
+            this.graph = graph;
+            return this;
+        }
+
+        /**
+         * Node switcher for knowing how to commit a new node in the parent resource id
+         * @param nodeSwitcher instance
+         * @return builder instance
+         */
+        public @NonNull Builder<RenderObject> switcher(@NonNull NodeSwitcher<RenderObject> nodeSwitcher) {
+            this.nodeSwitcher = nodeSwitcher;
+            return this;
+        }
+
+        /**
+         * Prefetch the render objects of the nodes likely to be commited next. Disabled by default
+         * @param prefetchPolicy policy to use, not shared with other routers
+         * @return builder instance
+         */
+        public @NonNull Builder<RenderObject> prefetch(@NonNull PrefetchPolicy prefetchPolicy) {
+            this.prefetchPolicy = prefetchPolicy;
+            return this;
+        }
+
+        /**
+         * Executor in which selectors are evaluated when using {@link Router#nextAsync}
+         * @param executor for the selectors
+         * @return builder instance
+         */
+        public @NonNull Builder<RenderObject> selectorExecutor(@NonNull Executor executor) {
+            this.selectorExecutor = executor;
+            return this;
+        }
+
+        /**
+         * Executor in which nodes selected asynchronously and coalesced commits are commited. Its
+         * needed for both, on android use a {@code MainThreadExecutor}
+         * @param executor for commiting
+         * @return builder instance
+         */
+        public @NonNull Builder<RenderObject> mainExecutor(@NonNull Executor executor) {
+            this.mainExecutor = executor;
+            return this;
+        }
+
+        /**
+         * Remember the edge selected for each node and values of the args, so going through the same
+         * node with the same values doesnt evaluate the selectors again. Only applies to nodes whose
+         * outgoing edges are all {@link com.u.core.node.CacheableNodeSelector}. The memo is cleared
+         * on {@link Router#fromRoot()} and jumps. The graph must be frozen (see {@link Graph#freeze()}),
+         * since the keys read by each node are resolved once. Disabled by default
+         * @param capacity max amount of selections remembered
+         * @return builder instance
+         */
+        public @NonNull Builder<RenderObject> memoize(int capacity) {
+            if (capacity < 1) {
+                throw new IllegalArgumentException("Memo capacity must be positive");
+            }
+            this.memoCapacity = capacity;
+            return this;
+        }
+
+        /**
+         * Report how long selections, commits and listeners take for each node. Disabled by
+         * default, in which case nothing is measured
+         * @param metrics receiving the measures, eg. {@link com.u.core.metrics.HistogramRouterMetrics}
+         * @return builder instance
+         */
+        public @NonNull Builder<RenderObject> metrics(@NonNull RouterMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * Trace the moves of the router, the selectors, commits and listeners of each node. Disabled
+         * by default
+         * @param tracer for the sections, eg. {@link com.u.core.trace.SystraceTracer}
+         * @return builder instance
+         */
+        public @NonNull Builder<RenderObject> tracer(@NonNull Tracer tracer) {
+            this.tracer = tracer;
+            return this;
+        }
+
+        /**
+         * Coalesce the commits done in a row (eg. many {@link Router#next(FlowArgs)} calls before the
+         * first one is rendered). The decisions are taken right away, but the node switcher only
+         * commits the last node, in the next loop of the main executor. Listeners are still notified
+         * of every step then, but only the last one receives its render object.
+         *
+         * <b>Note:</b> When coalescing, the moves of the router return null since nothing is
+         * rendered yet. Disabled by default
+         * @param coalesce if commits should be coalesced
+         * @return builder instance
+         */
+        public @NonNull Builder<RenderObject> coalesce(boolean coalesce) {
+            this.coalesce = coalesce;
+            return this;
+        }
+
+        /**
+         * Create a new router from the provided parameters
+         * @return Router instance
+         */
+        public @NonNull Router<RenderObject> build() {
+            if (
+                graph == null ||
+                nodeSwitcher == null
+                ) {
+                throw new IllegalStateException("Missing parameters for constructing a stable router");
+            }
+            if (memoCapacity > 0 && !(graph instanceof CompiledGraph)) {
+                throw new IllegalStateException("Memoizing selections needs a frozen graph, see Graph#freeze()");
+            }
+            if (coalesce && mainExecutor == null) {
+                throw new IllegalStateException("Missing main executor for coalescing commits");
+            }
+
+            return new Router<RenderObject>(this);
+        }
+
+    }
+
+    /**
+     * A registered listener, with the executor in which its notified (null for the commit thread)
+     */
+    private static final class ListenerEntry<RenderObject> {
+
+        private final @NonNull OnNodeCommitListener<RenderObject> listener;
+        private final @Nullable Executor executor;
+
+        ListenerEntry(@NonNull OnNodeCommitListener<RenderObject> listener, @Nullable Executor executor) {
+            this.listener = listener;
+            this.executor = executor;
+        }
+
+        void dispatch(@Nullable final RenderObject rendered, @Nullable final String nodeTag) {
+            if (executor == null) {
+                listener.onNodeCommited(rendered, nodeTag);
+            } else {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        listener.onNodeCommited(rendered, nodeTag);
+                    }
+                });
+            }
+        }
+
+    }
+
+    public interface NextCallback<RenderObject> {
+        /**
+         * Called when an asynchronous move forward finished
+         * @param rendered object rendered from the commited node, or null if no node was commited
+         */
+        void onNext(@Nullable RenderObject rendered);
+
+        /**
+         * Called instead of {@link #onNext(Object)} when a selector failed. Nothing was commited
+         * @param error thrown by the selector
+         */
+        void onError(@NonNull RuntimeException error);
+    }
+
+    public interface OnNodeCommitListener<RenderObject> {
+        /**
+         * Called when a node from the graph has been commited to the container
+         * @param rendered object rendered from the node (view/fragment/etc)
+         * @param nodeTag tag of the commited node (if applied, else null)
+         */
+        void onNodeCommited(@Nullable RenderObject rendered, @Nullable String nodeTag);
+    }
+
+}
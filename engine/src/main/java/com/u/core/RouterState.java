@@ -0,0 +1,76 @@
+package com.u.core;
+
+import android.support.annotation.NonNull;
+import com.u.core.graph.Graph;
+import com.u.core.node.Node;
+import java.util.List;
+
+/**
+ * Compact state of a {@link Router}, for restoring it after the process dies (eg. from
+ * {@code onSaveInstanceState}).
+ *
+ * The decisions are stored as the indexes of the nodes in the graph (see {@link Graph#indexOf}),
+ * which are the same in every process as long as the graph is built the same way. The fingerprint
+ * of the graph tells if it was, so a state is never restored over a different graph.
+ */
+public final class RouterState {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final @NonNull int[] decisions;
+    private final long fingerprint;
+
+    /**
+     * Constructor
+     * @param decisions indexes of the nodes traversed, the last one being the current node
+     * @param fingerprint of the graph, see {@link #fingerprintOf(Graph)}
+     */
+    public RouterState(@NonNull int[] decisions, long fingerprint) {
+        this.decisions = decisions;
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * @return indexes of the nodes traversed, the last one being the current node. Dont modify it
+     */
+    @NonNull
+    public int[] getDecisions() {
+        return decisions;
+    }
+
+    /**
+     * @return fingerprint of the graph the decisions belong to
+     */
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Hash of the structure of a graph: the descriptors, tags and outgoing edges of the nodes, in
+     * index order. Graphs built the same way have the same fingerprint.
+     * @param graph to analyze
+     * @return fingerprint of the graph
+     */
+    public static long fingerprintOf(@NonNull Graph graph) {
+        long hash = FNV_OFFSET;
+        for (int index = 0; index < graph.size(); index++) {
+            Node node = graph.getNodeAt(index);
+            hash = mix(hash, node.getDescriptor().getName().hashCode());
+            hash = mix(hash, node.getTag() == null ? 0 : node.getTag().hashCode());
+
+            List<Node> outgoingEdges = graph.getOutgoingEdges(index);
+            int size = outgoingEdges == null ? 0 : outgoingEdges.size();
+            hash = mix(hash, size);
+            for (int i = 0; i < size; i++) {
+                hash = mix(hash, graph.getOutgoingEdgeIndex(index, i));
+            }
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, int value) {
+        return (hash ^ value) * FNV_PRIME;
+    }
+
+}
@@ -0,0 +1,204 @@
+package com.u.core;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import com.u.core.node.CacheableNodeSelector;
+import com.u.core.node.Node;
+import com.u.core.node.NodeSelector;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded memo of the edge selected in each node, keyed by the node and the values of the args
+ * keys its outgoing edges read. Only nodes whose outgoing edges are all {@link CacheableNodeSelector}
+ * are memoized. Least recently used entries are dropped when full.
+ *
+ * <p>Lookups fill a reusable probe key, so hits dont allocate. Only a miss stores a copy of it. The
+ * keys read by each node are resolved once, so the graph must not change (see
+ * {@link com.u.core.graph.Graph#freeze()}).</p>
+ */
+final class SelectionMemo {
+
+    static final int MISS = -2;
+    static final int NOT_MEMOIZED = -3;
+
+    private static final String[] NOT_CACHEABLE = new String[0];
+
+    private final @NonNull LinkedHashMap<Key, Integer> entries;
+
+    /**
+     * Keys read by the outgoing edges of each node (by graph index), or {@link #NOT_CACHEABLE}
+     */
+    private @NonNull String[][] keys;
+
+    /**
+     * Key of the last lookup, refilled by each one
+     */
+    private final @NonNull Key probe;
+
+    SelectionMemo(final int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Memo capacity must be positive");
+        }
+        this.entries = new LinkedHashMap<Key, Integer>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Integer> eldest) {
+                return size() > capacity;
+            }
+        };
+        this.keys = new String[0][];
+        this.probe = new Key();
+    }
+
+    /**
+     * Look up the selection memoized for the node and the values of the args. On a {@link #MISS},
+     * {@link #put(int)} memoizes the selection for them
+     * @param index of the node in the graph
+     * @param edges outgoing edges of the node
+     * @param args used for selecting
+     * @return position of the edge selected, -1 if none was, {@link #MISS}, or {@link #NOT_MEMOIZED}
+     * if the node cant be memoized
+     */
+    int get(int index, @NonNull List<Node> edges, @Nullable FlowArgs args) {
+        String[] nodeKeys = keysOf(index, edges);
+        if (nodeKeys == NOT_CACHEABLE) {
+            return NOT_MEMOIZED;
+        }
+
+        probe.fill(index, nodeKeys, args);
+        Integer position = entries.get(probe);
+        return position == null ? MISS : position;
+    }
+
+    /**
+     * Memoize the selection for the node and values of the last {@link #get} that missed
+     * @param position of the edge selected, or -1 if none was
+     */
+    void put(int position) {
+        entries.put(probe.copy(), position);
+    }
+
+    void clear() {
+        entries.clear();
+    }
+
+    @NonNull
+    private String[] keysOf(int index, @NonNull List<Node> edges) {
+        if (index >= keys.length) {
+            keys = Arrays.copyOf(keys, Math.max(index + 1, keys.length * 2));
+        }
+
+        String[] nodeKeys = keys[index];
+        if (nodeKeys == null) {
+            LinkedHashSet<String> union = new LinkedHashSet<>();
+            for (int i = 0, size = edges.size(); i < size && union != null; i++) {
+                NodeSelector selector = edges.get(i).getSelector();
+                if (selector instanceof CacheableNodeSelector) {
+                    union.addAll(Arrays.asList(((CacheableNodeSelector) selector).getKeys()));
+                } else {
+                    union = null;
+                }
+            }
+
+            nodeKeys = union == null ? NOT_CACHEABLE : union.toArray(new String[union.size()]);
+            keys[index] = nodeKeys;
+        }
+        return nodeKeys;
+    }
+
+    /**
+     * Node index and values of its keys. Keys stored in the memo are copies and never change, only
+     * the probe is refilled.
+     */
+    static final class Key {
+
+        private int index;
+        private @NonNull Object[] values;
+        private int size;
+        private int hash;
+
+        Key() {
+            this.values = new Object[4];
+        }
+
+        private Key(int index, @NonNull Object[] values, int hash) {
+            this.index = index;
+            this.values = values;
+            this.size = values.length;
+            this.hash = hash;
+        }
+
+        void fill(int index, @NonNull String[] keys, @Nullable FlowArgs args) {
+            if (keys.length > values.length) {
+                values = new Object[Math.max(keys.length, values.length * 2)];
+            }
+
+            int result = index;
+            for (int i = 0; i < keys.length; i++) {
+                Object value = args == null ? null : args.get(keys[i]);
+                values[i] = value;
+                result = 31 * result + hashOf(value);
+            }
+            this.index = index;
+            this.size = keys.length;
+            this.hash = result;
+        }
+
+        @NonNull
+        Key copy() {
+            return new Key(index, Arrays.copyOf(values, size), hash);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            if (index != key.index || hash != key.hash || size != key.size) {
+                return false;
+            }
+            for (int i = 0; i < size; i++) {
+                if (!equal(values[i], key.values[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        /**
+         * Arrays are compared by content, as {@link Arrays#deepEquals} does. Only them are wrapped
+         */
+        private static int hashOf(@Nullable Object value) {
+            if (value == null) {
+                return 0;
+            }
+            return value.getClass().isArray() ? Arrays.deepHashCode(new Object[] { value }) : value.hashCode();
+        }
+
+        private static boolean equal(@Nullable Object a, @Nullable Object b) {
+            if (a == b) {
+                return true;
+            }
+            if (a == null || b == null) {
+                return false;
+            }
+            return a.getClass().isArray() ?
+                Arrays.deepEquals(new Object[] { a }, new Object[] { b }) :
+                a.equals(b);
+        }
+
+    }
+
+}
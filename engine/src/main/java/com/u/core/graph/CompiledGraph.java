@@ -0,0 +1,279 @@
+package com.u.core.graph;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import com.u.core.node.Node;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Immutable graph created by {@link Graph#freeze()}.
+ *
+ * <p>Each node is given a dense index following the topological order of the source graph
+ * (index 0 is the bottom, the root is the last one). Outgoing and incoming edges are stored in
+ * compressed sparse row form: the edges of the node {@code i} are the indexes found in
+ * {@code edges[offsets[i]]} to {@code edges[offsets[i + 1] - 1]}.</p>
+ *
+ * <p>This class can be shared between threads.</p>
+ */
+public final class CompiledGraph implements Graph {
+
+    private final @NonNull Node[] nodes;
+    private final @NonNull List<Node> sorted;
+
+    /**
+     * Open addressing table from node to (index + 1), 0 meaning an empty slot.
+     */
+    private final @NonNull int[] slots;
+    private final int slotsMask;
+
+    private final @NonNull int[] outOffsets;
+    private final @NonNull int[] outEdges;
+    private final @NonNull int[] inOffsets;
+    private final @NonNull int[] inEdges;
+
+    private final @NonNull DecisionTable[] decisionTables;
+
+    private final @NonNull HashMap<String, Node> tags;
+    private final int root;
+
+    /**
+     * Read-only edge lists, created the first time they are asked for. Racing threads may
+     * create the same view twice, which is harmless.
+     */
+    private final @NonNull EdgeList[] outViews;
+    private final @NonNull EdgeList[] inViews;
+
+    CompiledGraph(@NonNull Graph source) {
+        List<Node> sortedSource = source.getAllNodesSorted();
+        int size = sortedSource == null ? 0 : sortedSource.size();
+
+        nodes = new Node[size];
+        tags = new HashMap<>();
+        slots = new int[tableSize(size)];
+        slotsMask = slots.length - 1;
+        for (int i = 0; i < size; i++) {
+            Node node = sortedSource.get(i);
+            nodes[i] = node;
+            slots[freeSlot(node)] = i + 1;
+            if (node.getTag() != null) {
+                tags.put(node.getTag(), node);
+            }
+        }
+        sorted = Collections.unmodifiableList(Arrays.asList(nodes));
+
+        outOffsets = new int[size + 1];
+        inOffsets = new int[size + 1];
+        for (int i = 0; i < size; i++) {
+            List<Node> out = source.getOutgoingEdges(nodes[i]);
+            List<Node> in = source.getIncomingEdges(nodes[i]);
+            outOffsets[i + 1] = outOffsets[i] + (out == null ? 0 : out.size());
+            inOffsets[i + 1] = inOffsets[i] + (in == null ? 0 : in.size());
+        }
+
+        outEdges = new int[outOffsets[size]];
+        inEdges = new int[inOffsets[size]];
+        for (int i = 0; i < size; i++) {
+            fill(source.getOutgoingEdges(nodes[i]), outEdges, outOffsets[i]);
+            fill(source.getIncomingEdges(nodes[i]), inEdges, inOffsets[i]);
+        }
+
+        decisionTables = new DecisionTable[size];
+        for (int i = 0; i < size; i++) {
+            decisionTables[i] = DecisionTable.compile(source.getOutgoingEdges(nodes[i]));
+        }
+
+        Node sourceRoot = source.getRoot();
+        root = sourceRoot == null ? -1 : indexOf(sourceRoot);
+
+        outViews = new EdgeList[size];
+        inViews = new EdgeList[size];
+    }
+
+    private static int tableSize(int size) {
+        // Keep the load factor under 0.5
+        int capacity = 2;
+        while (capacity < size * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static int hash(@NonNull Node node) {
+        int h = node.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private int freeSlot(@NonNull Node node) {
+        int slot = hash(node) & slotsMask;
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & slotsMask;
+        }
+        return slot;
+    }
+
+    private void fill(@Nullable List<Node> edges, @NonNull int[] into, int offset) {
+        if (edges != null) {
+            for (int i = 0, size = edges.size(); i < size; i++) {
+                into[offset + i] = indexOf(edges.get(i));
+            }
+        }
+    }
+
+    @Nullable
+    private EdgeList view(@NonNull EdgeList[] views, @NonNull int[] offsets, @NonNull int[] edges, int index) {
+        if (offsets[index] == offsets[index + 1]) {
+            return null;
+        }
+
+        EdgeList view = views[index];
+        if (view == null) {
+            view = new EdgeList(edges, offsets[index], offsets[index + 1]);
+            views[index] = view;
+        }
+        return view;
+    }
+
+    @Nullable
+    @Override
+    public Node getRoot() {
+        return root < 0 ? null : nodes[root];
+    }
+
+    @Nullable
+    @Override
+    public List<Node> getIncomingEdges(@NonNull Node node) {
+        int index = indexOf(node);
+        return index < 0 ? null : getIncomingEdges(index);
+    }
+
+    @Nullable
+    @Override
+    public List<Node> getOutgoingEdges(@NonNull Node node) {
+        int index = indexOf(node);
+        return index < 0 ? null : getOutgoingEdges(index);
+    }
+
+    @Nullable
+    @Override
+    public List<Node> getIncomingEdges(int index) {
+        return view(inViews, inOffsets, inEdges, index);
+    }
+
+    @Nullable
+    @Override
+    public List<Node> getOutgoingEdges(int index) {
+        return view(outViews, outOffsets, outEdges, index);
+    }
+
+    @Override
+    public int getOutgoingEdgeIndex(int index, int position) {
+        return outEdges[outOffsets[index] + position];
+    }
+
+    @Nullable
+    @Override
+    public DecisionTable getDecisionTable(int index) {
+        return decisionTables[index];
+    }
+
+    @Override
+    public int indexOf(@NonNull Node node) {
+        int slot = hash(node) & slotsMask;
+        int value;
+        while ((value = slots[slot]) != 0) {
+            if (nodes[value - 1].equals(node)) {
+                return value - 1;
+            }
+            slot = (slot + 1) & slotsMask;
+        }
+        return -1;
+    }
+
+    @NonNull
+    @Override
+    public Node getNodeAt(int index) {
+        return nodes[index];
+    }
+
+    @Override
+    public int size() {
+        return nodes.length;
+    }
+
+    @Nullable
+    @Override
+    public Node getNodeByTag(@NonNull String tag) {
+        return tags.get(tag);
+    }
+
+    @NonNull
+    @Override
+    public List<Node> getAllNodesSorted() {
+        return sorted;
+    }
+
+    @Override
+    public boolean contains(@NonNull Node node) {
+        return indexOf(node) >= 0;
+    }
+
+    /**
+     * Already compiled, returns itself.
+     */
+    @NonNull
+    @Override
+    public Graph freeze() {
+        return this;
+    }
+
+    @Override
+    public void add(@NonNull Node node) {
+        throw new UnsupportedOperationException("A compiled graph cant be modified");
+    }
+
+    @Override
+    public void connect(@NonNull Node from, @NonNull Node to) {
+        throw new UnsupportedOperationException("A compiled graph cant be modified");
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("A compiled graph cant be modified");
+    }
+
+    /**
+     * Read-only list over a range of an edges array.
+     */
+    private final class EdgeList extends AbstractList<Node> implements RandomAccess {
+
+        private final @NonNull int[] edges;
+        private final int from;
+        private final int to;
+
+        EdgeList(@NonNull int[] edges, int from, int to) {
+            this.edges = edges;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public Node get(int location) {
+            if (location < 0 || location >= to - from) {
+                throw new IndexOutOfBoundsException("Index: " + location + ", size: " + (to - from));
+            }
+            return nodes[edges[from + location]];
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+
+    }
+
+}
@@ -0,0 +1,224 @@
+package com.u.core.graph;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.RestrictTo;
+import com.u.core.FlowArgs;
+import com.u.core.node.ConditionSelector;
+import com.u.core.node.Node;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Compiled selection of the outgoing edges of a branching node, when all of them use a
+ * {@link ConditionSelector} over the same key.
+ *
+ * <p>For numbers, the bounds of every condition split the line in regions (each bound alone, and the
+ * open intervals between them). The first edge selected in each region is precomputed, so selecting is
+ * a binary search over the bounds. For strings, the first edge of each value is kept in a map.</p>
+ *
+ * <p>The result is always the same as asking each selector in edge order.</p>
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public final class DecisionTable {
+
+    private final @NonNull String key;
+
+    private final @Nullable double[] bounds;
+    private final @Nullable int[] regions;
+
+    private final @Nullable HashMap<String, Integer> values;
+
+    /**
+     * Positions of the edges selected in some region or value
+     */
+    private final @NonNull BitSet selectable;
+
+    private DecisionTable(@NonNull String key, @NonNull double[] bounds, @NonNull int[] regions) {
+        this.key = key;
+        this.bounds = bounds;
+        this.regions = regions;
+        this.values = null;
+        this.selectable = new BitSet();
+        for (int region : regions) {
+            if (region >= 0) {
+                selectable.set(region);
+            }
+        }
+    }
+
+    private DecisionTable(@NonNull String key, @NonNull HashMap<String, Integer> values) {
+        this.key = key;
+        this.bounds = null;
+        this.regions = null;
+        this.values = values;
+        this.selectable = new BitSet();
+        for (Integer position : values.values()) {
+            selectable.set(position);
+        }
+    }
+
+    /**
+     * Compile the given outgoing edges.
+     * @param edges outgoing edges of a node, in order
+     * @return the decision table, or null if the edges cant be compiled or arent worth it
+     */
+    @Nullable
+    public static DecisionTable compile(@Nullable List<Node> edges) {
+        if (edges == null || edges.size() < 2) {
+            return null;
+        }
+
+        ConditionSelector[] conditions = new ConditionSelector[edges.size()];
+        for (int i = 0; i < conditions.length; i++) {
+            if (!(edges.get(i).getSelector() instanceof ConditionSelector)) {
+                return null;
+            }
+            conditions[i] = (ConditionSelector) edges.get(i).getSelector();
+            if (!conditions[i].getKey().equals(conditions[0].getKey()) ||
+                    conditions[i].getKind() != conditions[0].getKind()) {
+                return null;
+            }
+        }
+
+        String key = conditions[0].getKey();
+        if (conditions[0].getKind() == ConditionSelector.KIND_STRING) {
+            HashMap<String, Integer> values = new HashMap<>();
+            for (int i = 0; i < conditions.length; i++) {
+                if (!values.containsKey(conditions[i].getValue())) {
+                    values.put(conditions[i].getValue(), i);
+                }
+            }
+            return new DecisionTable(key, values);
+        }
+
+        // Adding 0.0 turns -0.0 into 0.0. The conditions compare them as equal, but sorting and
+        // searching dont
+        double[] bounds = new double[conditions.length * 2];
+        for (int i = 0; i < conditions.length; i++) {
+            bounds[i * 2] = conditions[i].getLower() + 0.0;
+            bounds[i * 2 + 1] = conditions[i].getUpper() + 0.0;
+        }
+        Arrays.sort(bounds);
+        int distinct = 0;
+        for (int i = 0; i < bounds.length; i++) {
+            if (distinct == 0 || bounds[distinct - 1] != bounds[i]) {
+                bounds[distinct++] = bounds[i];
+            }
+        }
+        bounds = Arrays.copyOf(bounds, distinct);
+
+        // Region 2i + 1 is bounds[i] alone, region 2i is the interval right before it
+        int[] regions = new int[bounds.length * 2 + 1];
+        double[] samples = new double[regions.length];
+        // Next region without an edge yet, for skipping the ones already taken by a previous edge
+        int[] next = new int[regions.length + 1];
+        for (int region = 0; region < regions.length; region++) {
+            regions[region] = -1;
+            next[region] = region;
+
+            if (region % 2 == 1) {
+                samples[region] = bounds[region / 2];
+            } else {
+                double before = region == 0 ? Double.NEGATIVE_INFINITY : bounds[region / 2 - 1];
+                double after = region == regions.length - 1 ? Double.POSITIVE_INFINITY : bounds[region / 2];
+                if (before == after || Math.nextUp(before) == after) {
+                    // Nothing lies beyond an infinite bound, nor between adjacent numbers
+                    next[region] = region + 1;
+                } else {
+                    samples[region] = sampleBetween(before, after);
+                }
+            }
+        }
+        next[regions.length] = regions.length;
+
+        // Each condition only spans the regions from its lower to its upper bound, and only the ones
+        // at both ends may not match it. So each region is sampled a few times at most
+        for (int i = 0; i < conditions.length; i++) {
+            int from = Arrays.binarySearch(bounds, conditions[i].getLower() + 0.0) * 2;
+            int to = Math.min(regions.length - 1, Arrays.binarySearch(bounds, conditions[i].getUpper() + 0.0) * 2 + 2);
+
+            for (int region = nextRegion(next, from); region <= to; region = nextRegion(next, region + 1)) {
+                if (conditions[i].matches(samples[region])) {
+                    regions[region] = i;
+                    next[region] = region + 1;
+                }
+            }
+        }
+
+        return new DecisionTable(key, bounds, regions);
+    }
+
+    /**
+     * @return the first region from the given one without an edge yet
+     */
+    private static int nextRegion(@NonNull int[] next, int region) {
+        int root = region;
+        while (next[root] != root) {
+            root = next[root];
+        }
+        // Compress the path, so later lookups skip straight to it
+        while (next[region] != root) {
+            int following = next[region];
+            next[region] = root;
+            region = following;
+        }
+        return root;
+    }
+
+    /**
+     * @return a number strictly inside the open interval (before, after), which cant be empty
+     */
+    private static double sampleBetween(double before, double after) {
+        double sample;
+        if (Double.isInfinite(before) && Double.isInfinite(after)) {
+            sample = 0;
+        } else if (Double.isInfinite(before)) {
+            sample = after - Math.max(1, Math.abs(after));
+        } else if (Double.isInfinite(after)) {
+            sample = before + Math.max(1, Math.abs(before));
+        } else {
+            sample = before / 2 + after / 2;
+        }
+        // Rounding lands on a bound when they are too close (or too big), the number right after the
+        // lower one is inside then
+        return sample > before && sample < after ? sample : Math.nextUp(before);
+    }
+
+    /**
+     * @param position of an outgoing edge
+     * @return false if the edge is never selected, because edges before it take all of its values
+     */
+    public boolean canSelect(int position) {
+        return position >= 0 && selectable.get(position);
+    }
+
+    /**
+     * @param args to select with
+     * @return position in the outgoing edges of the selected edge, or -1 if none is selected
+     */
+    public int select(@Nullable FlowArgs args) {
+        Object value = args == null ? null : args.get(key);
+
+        if (values != null) {
+            Integer position = value == null ? null : values.get(value);
+            return position == null ? -1 : position;
+        }
+
+        if (!(value instanceof Number)) {
+            return -1;
+        }
+
+        // Same as the bounds, -0.0 is searched as 0.0
+        double number = ((Number) value).doubleValue() + 0.0;
+        if (Double.isNaN(number)) {
+            return -1;
+        }
+
+        int position = Arrays.binarySearch(bounds, number);
+        return regions[position >= 0 ? position * 2 + 1 : (-position - 1) * 2];
+    }
+
+}
@@ -0,0 +1,398 @@
+package com.u.core.graph;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.u.core.node.Node;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A class which represents a simple directed acyclic graph.
+ * This class is internal of android and was copied with minor tweaks added.
+ *
+ * <p>Nodes are assigned a dense index (their insertion order) when added, and every per node
+ * structure is stored in lists addressed by that index.</p>
+ */
+public final class DirectedAcyclicGraph implements Graph {
+    private static final byte SORT_UNVISITED = 0;
+    private static final byte SORT_IN_PROGRESS = 1;
+    private static final byte SORT_DONE = 2;
+
+    private final ArrayList<Node> mNodes = new ArrayList<>();
+    private final HashMap<Node, Integer> mIndices = new HashMap<>();
+
+    private final ArrayList<ArrayList<Node>> mOutgoing = new ArrayList<>();
+
+    /**
+     * Indexes of the outgoing edges, in the same order, so moving forward doesnt look nodes up.
+     */
+    private final ArrayList<int[]> mOutgoingIndices = new ArrayList<>();
+
+    /**
+     * Reverse adjacency index, kept in sync with {@link #mOutgoing} so incoming edges can be
+     * looked up without walking every edge list. Read-only views are cached per node so
+     * callers of {@link #getIncomingEdges(Node)} dont allocate.
+     */
+    private final ArrayList<ArrayList<Node>> mIncoming = new ArrayList<>();
+    private final ArrayList<List<Node>> mIncomingViews = new ArrayList<>();
+
+    /**
+     * Decision tables of the outgoing edges, compiled when first asked for. A connection from a
+     * node invalidates its table.
+     */
+    private final ArrayList<DecisionTable> mDecisionTables = new ArrayList<>();
+    private final BitSet mDecisionTablesCompiled = new BitSet();
+
+    /**
+     * Tag lookup index.
+     */
+    private final HashMap<String, Node> mTags = new HashMap<>();
+
+    /**
+     * Nodes without incoming edges, in insertion order. A node leaves this set on its first
+     * incoming connection, so the root is known without sorting the graph.
+     */
+    private final LinkedHashSet<Node> mSources = new LinkedHashSet<>();
+    private final Set<Node> mSourcesView = Collections.unmodifiableSet(mSources);
+    private @Nullable Node mRoot;
+
+    private final ArrayList<Node> mSortResult = new ArrayList<>();
+
+    private boolean topologyChanged;
+
+    /**
+     * Returns the only node of the graph without incoming edges.
+     *
+     * It is known from the incoming edges alone, without sorting the graph. So a cycle hanging from
+     * the root (eg. A -> B -> C -> B) isnt reported here, but by {@link #getAllNodesSorted()} and
+     * {@link #freeze()}.
+     *
+     * @throws IllegalStateException if the graph has more than one node without incoming edges,
+     * or none because it is cyclic
+     */
+    @Override
+    @Nullable
+    public Node getRoot() {
+        if (mRoot != null) {
+            return mRoot;
+        }
+        if (mNodes.isEmpty()) {
+            return null;
+        }
+
+        switch (mSources.size()) {
+            case 0:
+                // Every node has an incoming edge, let the sort report the cycle.
+                getAllNodesSorted();
+                throw new IllegalStateException("This graph contains cyclic dependencies");
+            case 1:
+                mRoot = mSources.iterator().next();
+                return mRoot;
+            default:
+                throw new IllegalStateException("The graph has more than one root: " + mSources);
+        }
+    }
+
+    /**
+     * Returns the nodes of the graph without incoming edges, in insertion order.
+     *
+     * <p>The returned set is a read-only view backed by the graph.</p>
+     */
+    @NonNull
+    public Set<Node> getSources() {
+        return mSourcesView;
+    }
+
+    /**
+     * Add a node to the graph.
+     *
+     * <p>If the node already exists in the graph then this method is a no-op.</p>
+     *
+     * @param node the node to add
+     * @throws IllegalArgumentException if another node of the graph already has the same tag
+     */
+    @Override
+    public void add(@NonNull Node node) {
+        if (!mIndices.containsKey(node)) {
+            String tag = node.getTag();
+            if (tag != null) {
+                if (mTags.containsKey(tag)) {
+                    throw new IllegalArgumentException("Tags must be unique. There is already a node with tag: " + tag);
+                }
+                mTags.put(tag, node);
+            }
+
+            mIndices.put(node, mNodes.size());
+            mNodes.add(node);
+            mOutgoing.add(null);
+            mOutgoingIndices.add(null);
+            mIncoming.add(null);
+            mIncomingViews.add(null);
+            mDecisionTables.add(null);
+            mSources.add(node);
+            mRoot = null;
+            topologyChanged = true;
+        }
+    }
+
+    /**
+     * Get the node with the given tag.
+     *
+     * @return the node tagged, or null if there is none
+     */
+    @Nullable
+    @Override
+    public Node getNodeByTag(@NonNull String tag) {
+        return mTags.get(tag);
+    }
+
+    /**
+     * Returns true if the node is already present in the graph, false otherwise.
+     */
+    @Override
+    public boolean contains(@NonNull Node node) {
+        return mIndices.containsKey(node);
+    }
+
+    /**
+     * Add an edge to the graph.
+     *
+     * <p>Both the given nodes should already have been added to the graph through
+     * {@link #add(Node)}.</p>
+     *
+     * @param from the parent node
+     * @param to the node which has is an incoming edge to {@code node}
+     */
+    @Override
+    public void connect(@NonNull Node from, @NonNull Node to) {
+        Integer fromIndex = mIndices.get(from);
+        Integer toIndex = mIndices.get(to);
+        if (fromIndex == null || toIndex == null) {
+            throw new IllegalArgumentException("All nodes must be present in the graph before"
+                    + " being added as an edge");
+        }
+
+        ArrayList<Node> edges = mOutgoing.get(fromIndex);
+        if (edges == null) {
+            edges = new ArrayList<>();
+            mOutgoing.set(fromIndex, edges);
+        }
+        // Finally add the edge to the list
+        edges.add(to);
+
+        int[] indices = mOutgoingIndices.get(fromIndex);
+        if (indices == null || indices.length < edges.size()) {
+            indices = indices == null ? new int[2] : Arrays.copyOf(indices, indices.length * 2);
+            mOutgoingIndices.set(fromIndex, indices);
+        }
+        indices[edges.size() - 1] = toIndex;
+        mDecisionTablesCompiled.clear(fromIndex);
+
+        ArrayList<Node> incoming = mIncoming.get(toIndex);
+        if (incoming == null) {
+            incoming = new ArrayList<>();
+            mIncoming.set(toIndex, incoming);
+            mIncomingViews.set(toIndex, Collections.unmodifiableList(incoming));
+            // First incoming edge, it cant be a source anymore
+            mSources.remove(to);
+            mRoot = null;
+        }
+        incoming.add(from);
+
+        topologyChanged = true;
+    }
+
+    /**
+     * Get any incoming edges from the given node.
+     *
+     * @return a list containing any incoming edges, or null if there are none.
+     */
+    @Nullable
+    @Override
+    public List<Node> getOutgoingEdges(@NonNull Node node) {
+        Integer index = mIndices.get(node);
+        return index == null ? null : mOutgoing.get(index);
+    }
+
+    /**
+     * Get any incoming edges for the given node (i.e. nodes which have an incoming edge
+     * from the given node).
+     *
+     * <p>The returned list is a read-only view backed by the graph, so it will reflect
+     * later connections.</p>
+     *
+     * @return a list containing any outgoing edges, or null if there are none.
+     */
+    @Nullable
+    @Override
+    public List<Node> getIncomingEdges(@NonNull Node node) {
+        Integer index = mIndices.get(node);
+        return index == null ? null : mIncomingViews.get(index);
+    }
+
+    @Nullable
+    @Override
+    public List<Node> getOutgoingEdges(int index) {
+        return mOutgoing.get(index);
+    }
+
+    @Nullable
+    @Override
+    public List<Node> getIncomingEdges(int index) {
+        return mIncomingViews.get(index);
+    }
+
+    @Override
+    public int getOutgoingEdgeIndex(int index, int position) {
+        ArrayList<Node> edges = mOutgoing.get(index);
+        if (edges == null || position < 0 || position >= edges.size()) {
+            throw new IndexOutOfBoundsException("Position: " + position + ", edges: " + (edges == null ? 0 : edges.size()));
+        }
+        return mOutgoingIndices.get(index)[position];
+    }
+
+    @Nullable
+    @Override
+    public DecisionTable getDecisionTable(int index) {
+        if (!mDecisionTablesCompiled.get(index)) {
+            mDecisionTables.set(index, DecisionTable.compile(mOutgoing.get(index)));
+            mDecisionTablesCompiled.set(index);
+        }
+        return mDecisionTables.get(index);
+    }
+
+    @Override
+    public int indexOf(@NonNull Node node) {
+        Integer index = mIndices.get(node);
+        return index == null ? -1 : index;
+    }
+
+    @NonNull
+    @Override
+    public Node getNodeAt(int index) {
+        return mNodes.get(index);
+    }
+
+    public boolean hasOutgoingEdges(@NonNull Node node) {
+        return getIncomingEdges(node) != null;
+    }
+
+    /**
+     * Clears the internal graph.
+     */
+    @Override
+    public void clear() {
+        mNodes.clear();
+        mIndices.clear();
+        mOutgoing.clear();
+        mOutgoingIndices.clear();
+        mIncoming.clear();
+        mIncomingViews.clear();
+        mDecisionTables.clear();
+        mDecisionTablesCompiled.clear();
+        mTags.clear();
+        mSources.clear();
+        mRoot = null;
+        topologyChanged = true;
+    }
+
+    /**
+     * Returns a topologically sorted list of the nodes in this graph. This uses the DFS algorithm
+     * as described by Cormen et al. (2001), walked with an explicit stack so deep graphs cant
+     * overflow the thread stack. It runs in O(V + E). If this graph contains cyclic dependencies
+     * then this method will throw an {@link IllegalStateException} describing the cycle.
+     *
+     * <p>The resulting list will be ordered such that index 0 will contain the node at the bottom
+     * of the graph. The node at the end of the list will have no dependencies on other nodes.</p>
+     */
+    @NonNull
+    public List<Node> getAllNodesSorted() {
+        if (topologyChanged) {
+            mSortResult.clear();
+
+            final int size = mNodes.size();
+            final byte[] marks = new byte[size];
+            // DFS stack, holding for each level the node index and the next edge to walk
+            final int[] stackNodes = new int[size];
+            final int[] stackEdges = new int[size];
+
+            // Start a DFS from each node in the graph
+            for (int i = 0; i < size; i++) {
+                if (marks[i] != SORT_UNVISITED) {
+                    continue;
+                }
+
+                int depth = 0;
+                stackNodes[0] = i;
+                stackEdges[0] = 0;
+                marks[i] = SORT_IN_PROGRESS;
+
+                while (depth >= 0) {
+                    final int current = stackNodes[depth];
+                    final ArrayList<Node> edges = mOutgoing.get(current);
+
+                    if (edges != null && stackEdges[depth] < edges.size()) {
+                        final int child = mOutgoingIndices.get(current)[stackEdges[depth]++];
+                        if (marks[child] == SORT_IN_PROGRESS) {
+                            throw new IllegalStateException("This graph contains cyclic dependencies: "
+                                + describeCycle(stackNodes, depth, child));
+                        }
+                        if (marks[child] == SORT_UNVISITED) {
+                            marks[child] = SORT_IN_PROGRESS;
+                            depth++;
+                            stackNodes[depth] = child;
+                            stackEdges[depth] = 0;
+                        }
+                    } else {
+                        // Every edge was walked, so it can be added to the result list
+                        marks[current] = SORT_DONE;
+                        mSortResult.add(mNodes.get(current));
+                        depth--;
+                    }
+                }
+            }
+
+            topologyChanged = false;
+        }
+        return mSortResult;
+    }
+
+    @NonNull
+    private String describeCycle(@NonNull int[] stackNodes, int depth, int repeated) {
+        int start = depth;
+        while (stackNodes[start] != repeated) {
+            start--;
+        }
+
+        StringBuilder builder = new StringBuilder();
+        for (int i = start; i <= depth; i++) {
+            builder.append(mNodes.get(stackNodes[i])).append(" -> ");
+        }
+        return builder.append(mNodes.get(repeated)).toString();
+    }
+
+    /**
+     * Returns the size of the graph
+     */
+    @Override
+    public int size() {
+        return mNodes.size();
+    }
+
+    /**
+     * Returns an immutable {@link CompiledGraph} with the current nodes and connections of
+     * this graph. Later changes to this graph dont affect it.
+     */
+    @NonNull
+    @Override
+    public Graph freeze() {
+        return new CompiledGraph(this);
+    }
+}
@@ -0,0 +1,136 @@
+package com.u.core.graph;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import com.u.core.node.Node;
+import java.util.List;
+
+/**
+ * Created by saguilera on 6/10/17.
+ */
+public interface Graph {
+
+    /**
+     * Add a node to the graph
+     * @param node
+     */
+    void add(@NonNull Node node);
+
+    /**
+     * Connect from a node to another one
+     * @param from start node
+     * @param to end node
+     */
+    void connect(@NonNull Node from, @NonNull Node to);
+
+    /**
+     * Get the root node. The entry point of the graph, which is the only node without
+     * incoming edges
+     * @return root node or null if no nodes exist
+     */
+    @Nullable Node getRoot();
+
+    /**
+     * Get all incoming edges (connections) of a node
+     * @param node to analyze
+     * @return List of nodes
+     */
+    @Nullable List<Node> getIncomingEdges(@NonNull Node node);
+
+    /**
+     * Get all outgoing edges (connections) of a node
+     * @param node to analyze
+     * @return List of nodes
+     */
+    @Nullable List<Node> getOutgoingEdges(@NonNull Node node);
+
+    /**
+     * Return all nodes sorted from end to start.
+     * EG:
+     * A -> B -> D -> E
+     *  \_> C
+     *
+     * sort = [E, D, B, C, A]
+     *
+     * @return list of nodes sorted
+     */
+    @Nullable List<Node> getAllNodesSorted();
+
+    /**
+     * Get all incoming edges (connections) of the node at the given index
+     * @param index of the node, see {@link #indexOf(Node)}
+     * @return List of nodes
+     */
+    @Nullable List<Node> getIncomingEdges(int index);
+
+    /**
+     * Get all outgoing edges (connections) of the node at the given index
+     * @param index of the node, see {@link #indexOf(Node)}
+     * @return List of nodes
+     */
+    @Nullable List<Node> getOutgoingEdges(int index);
+
+    /**
+     * Get the index of the node an outgoing edge goes to, without looking the node up
+     * @param index of the node, see {@link #indexOf(Node)}
+     * @param position of the edge in {@link #getOutgoingEdges(int)}
+     * @return index of the node at that position
+     */
+    int getOutgoingEdgeIndex(int index, int position);
+
+    /**
+     * Get the compiled selection of the outgoing edges of the node at the given index, see
+     * {@link DecisionTable}
+     * @param index of the node, see {@link #indexOf(Node)}
+     * @return decision table, or null if the outgoing edges arent compiled
+     */
+    @Nullable DecisionTable getDecisionTable(int index);
+
+    /**
+     * Get the dense index of a node. Indexes go from 0 to {@link #size()} - 1 and are stable
+     * while the graph isnt cleared.
+     * @param node to analyze
+     * @return index of the node or -1 if its not present
+     */
+    int indexOf(@NonNull Node node);
+
+    /**
+     * Get the node at the given index
+     * @param index of the node, see {@link #indexOf(Node)}
+     * @return node at that index
+     */
+    @NonNull Node getNodeAt(int index);
+
+    /**
+     * Amount of nodes in the graph
+     * @return size of the graph
+     */
+    int size();
+
+    /**
+     * Get the node tagged with the given tag
+     * @param tag of the node
+     * @return node with that tag or null if none has it
+     */
+    @Nullable Node getNodeByTag(@NonNull String tag);
+
+    /**
+     * Create an immutable copy of this graph, optimized for lookups.
+     * Use it once the graph wont change anymore.
+     * @return compiled graph
+     */
+    @NonNull Graph freeze();
+
+    /**
+     * Clear the graph
+     */
+    void clear();
+
+    /**
+     * If the graph contains the node
+     * @param node to analyze
+     * @return true if is present, false otherwise
+     */
+    boolean contains(@NonNull Node node);
+
+}
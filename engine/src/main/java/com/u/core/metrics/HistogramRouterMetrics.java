@@ -0,0 +1,108 @@
+package com.u.core.metrics;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import com.u.core.node.Node;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Router metrics that keep lock-free histograms for each node. Reads are lock-free too, so it can
+ * be queried while the router runs.
+ */
+public final class HistogramRouterMetrics implements RouterMetrics {
+
+    private final @NonNull ConcurrentHashMap<Node, NodeMetrics> nodes = new ConcurrentHashMap<>();
+
+    @NonNull
+    private NodeMetrics of(@NonNull Node node) {
+        NodeMetrics metrics = nodes.get(node);
+        if (metrics == null) {
+            NodeMetrics created = new NodeMetrics();
+            metrics = nodes.putIfAbsent(node, created);
+            if (metrics == null) {
+                metrics = created;
+            }
+        }
+        return metrics;
+    }
+
+    @Override
+    public void onSelection(@NonNull Node from, long nanos) {
+        of(from).selection.record(nanos);
+    }
+
+    @Override
+    public void onSwitcherCommit(@NonNull Node node, long nanos) {
+        of(node).switcherCommit.record(nanos);
+    }
+
+    @Override
+    public void onListenersDispatch(@NonNull Node node, long nanos) {
+        of(node).listenersDispatch.record(nanos);
+    }
+
+    @Override
+    public void onDecisionDepth(@NonNull Node node, int depth) {
+        of(node).decisionDepth.record(depth);
+    }
+
+    /**
+     * @param node to query
+     * @return metrics of the node, or null if nothing was recorded for it
+     */
+    @Nullable
+    public NodeMetrics get(@NonNull Node node) {
+        return nodes.get(node);
+    }
+
+    /**
+     * @return snapshot of the nodes with metrics recorded
+     */
+    @NonNull
+    public Map<Node, NodeMetrics> getAll() {
+        return Collections.unmodifiableMap(new HashMap<>(nodes));
+    }
+
+    /**
+     * Forget everything recorded
+     */
+    public void clear() {
+        nodes.clear();
+    }
+
+    /**
+     * Histograms of a single node. Latencies are in nanoseconds.
+     */
+    public static final class NodeMetrics {
+
+        private final @NonNull LatencyHistogram selection = new LatencyHistogram();
+        private final @NonNull LatencyHistogram switcherCommit = new LatencyHistogram();
+        private final @NonNull LatencyHistogram listenersDispatch = new LatencyHistogram();
+        private final @NonNull LatencyHistogram decisionDepth = new LatencyHistogram();
+
+        NodeMetrics() {
+            // Created by the router metrics
+        }
+
+        public @NonNull LatencyHistogram getSelection() {
+            return selection;
+        }
+
+        public @NonNull LatencyHistogram getSwitcherCommit() {
+            return switcherCommit;
+        }
+
+        public @NonNull LatencyHistogram getListenersDispatch() {
+            return listenersDispatch;
+        }
+
+        public @NonNull LatencyHistogram getDecisionDepth() {
+            return decisionDepth;
+        }
+
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.u.core.metrics;
+
+import android.support.annotation.NonNull;
+import com.u.core.node.Node;
+
+/**
+ * Receives measures of the work done by a router, for each node. Set it with
+ * {@link com.u.core.Router.Builder#metrics(RouterMetrics)}. When none is set, the router doesnt
+ * measure anything.
+ *
+ * <p>Implementations must be thread safe, selections made with
+ * {@link com.u.core.Router#nextAsync} are reported from the selector executor.</p>
+ *
+ * See {@link HistogramRouterMetrics} for a default implementation.
+ */
+public interface RouterMetrics {
+
+    /**
+     * Called after selecting the next node from a node
+     * @param from node whose outgoing edges were evaluated
+     * @param nanos spent evaluating the selectors
+     */
+    void onSelection(@NonNull Node from, long nanos);
+
+    /**
+     * Called after the node switcher commited a node
+     * @param node commited
+     * @param nanos spent by the node switcher
+     */
+    void onSwitcherCommit(@NonNull Node node, long nanos);
+
+    /**
+     * Called after notifying the commit listeners of a node
+     * @param node commited
+     * @param nanos spent in the listeners
+     */
+    void onListenersDispatch(@NonNull Node node, long nanos);
+
+    /**
+     * Called after a node is commited
+     * @param node commited
+     * @param depth of the decisions stack, including the node
+     */
+    void onDecisionDepth(@NonNull Node node, int depth);
+
+}
@@ -0,0 +1,11 @@
+package com.u.core.node;
+
+/**
+ * Selector that may block while deciding, eg. because it reads a database or a remote feature flag.
+ *
+ * <p>When moving with {@link com.u.core.Router#nextAsync}, async selectors of the outgoing edges are
+ * evaluated in parallel on the router selector executor, so they must be safe to call from any thread.
+ * The args received must only be read.</p>
+ */
+public interface AsyncNodeSelector extends NodeSelector {
+}
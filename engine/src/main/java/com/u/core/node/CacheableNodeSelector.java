@@ -0,0 +1,20 @@
+package com.u.core.node;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Selector whose result only depends on the values of some keys of the args.
+ *
+ * <p>When every outgoing edge of a node is cacheable, a router with memoization enabled (see
+ * {@link com.u.core.Router.Builder#memoize(int)}) remembers which edge was selected for the values
+ * of those keys, and skips evaluating the selectors next time the same values are seen.</p>
+ */
+public interface CacheableNodeSelector extends NodeSelector {
+
+    /**
+     * Keys of the args read by this selector. It must always return the same keys.
+     * @return keys read
+     */
+    @NonNull String[] getKeys();
+
+}
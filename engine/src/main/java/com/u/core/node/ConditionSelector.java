@@ -0,0 +1,171 @@
+package com.u.core.node;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.RestrictTo;
+import com.u.core.FlowArgs;
+
+/**
+ * Declarative selector that picks the node according to a single value of the args.
+ *
+ * <p>Unlike an opaque {@link NodeSelector}, graphs can inspect it. When every outgoing edge of a node
+ * uses a condition over the same key, the graph compiles them into a
+ * {@link com.u.core.graph.DecisionTable}, so the next node is found with a single read of the
+ * args and a binary search, instead of asking each selector in turn.</p>
+ *
+ * Eg:
+ * <pre>
+ *     Node.create()
+ *         .descriptor(MinorView.class)
+ *         .selector(ConditionSelector.lessThan("age", 18))
+ *         .build();
+ * </pre>
+ */
+public final class ConditionSelector implements CacheableNodeSelector {
+
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public static final int KIND_NUMBER = 0;
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public static final int KIND_STRING = 1;
+
+    private final @NonNull String key;
+    private final @NonNull String[] keys;
+    private final int kind;
+
+    private final double lower;
+    private final boolean lowerInclusive;
+    private final double upper;
+    private final boolean upperInclusive;
+
+    private final @Nullable String value;
+
+    private ConditionSelector(@NonNull String key, double lower, boolean lowerInclusive,
+            double upper, boolean upperInclusive) {
+        if (Double.isNaN(lower) || Double.isNaN(upper)) {
+            throw new IllegalArgumentException("Condition bounds cant be NaN");
+        }
+        this.key = key;
+        this.keys = new String[] { key };
+        this.kind = KIND_NUMBER;
+        this.lower = lower;
+        this.lowerInclusive = lowerInclusive;
+        this.upper = upper;
+        this.upperInclusive = upperInclusive;
+        this.value = null;
+    }
+
+    private ConditionSelector(@NonNull String key, @NonNull String value) {
+        this.key = key;
+        this.keys = new String[] { key };
+        this.kind = KIND_STRING;
+        this.lower = 0;
+        this.lowerInclusive = false;
+        this.upper = 0;
+        this.upperInclusive = false;
+        this.value = value;
+    }
+
+    /**
+     * Selects when the number under the key is lower than the given one
+     */
+    public static @NonNull ConditionSelector lessThan(@NonNull String key, double number) {
+        return new ConditionSelector(key, Double.NEGATIVE_INFINITY, true, number, false);
+    }
+
+    /**
+     * Selects when the number under the key is lower or equal to the given one
+     */
+    public static @NonNull ConditionSelector atMost(@NonNull String key, double number) {
+        return new ConditionSelector(key, Double.NEGATIVE_INFINITY, true, number, true);
+    }
+
+    /**
+     * Selects when the number under the key is greater than the given one
+     */
+    public static @NonNull ConditionSelector greaterThan(@NonNull String key, double number) {
+        return new ConditionSelector(key, number, false, Double.POSITIVE_INFINITY, true);
+    }
+
+    /**
+     * Selects when the number under the key is greater or equal to the given one
+     */
+    public static @NonNull ConditionSelector atLeast(@NonNull String key, double number) {
+        return new ConditionSelector(key, number, true, Double.POSITIVE_INFINITY, true);
+    }
+
+    /**
+     * Selects when the number under the key is in [from, to)
+     */
+    public static @NonNull ConditionSelector between(@NonNull String key, double from, double to) {
+        return new ConditionSelector(key, from, true, to, false);
+    }
+
+    /**
+     * Selects when the number under the key is equal to the given one
+     */
+    public static @NonNull ConditionSelector equalTo(@NonNull String key, double number) {
+        return new ConditionSelector(key, number, true, number, true);
+    }
+
+    /**
+     * Selects when the string under the key is equal to the given one
+     */
+    public static @NonNull ConditionSelector equalTo(@NonNull String key, @NonNull String value) {
+        return new ConditionSelector(key, value);
+    }
+
+    @Override
+    public boolean select(@Nullable FlowArgs args) {
+        return args != null && matches(args.get(key));
+    }
+
+    @NonNull
+    @Override
+    public String[] getKeys() {
+        return keys;
+    }
+
+    /**
+     * @param object value found under the key, or null if there is none
+     * @return true if the value fulfills the condition
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public boolean matches(@Nullable Object object) {
+        if (kind == KIND_STRING) {
+            return value.equals(object);
+        }
+        return object instanceof Number && matches(((Number) object).doubleValue());
+    }
+
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public boolean matches(double number) {
+        return (lowerInclusive ? number >= lower : number > lower) &&
+            (upperInclusive ? number <= upper : number < upper);
+    }
+
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public @NonNull String getKey() {
+        return key;
+    }
+
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public int getKind() {
+        return kind;
+    }
+
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public double getLower() {
+        return lower;
+    }
+
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public double getUpper() {
+        return upper;
+    }
+
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public @Nullable String getValue() {
+        return value;
+    }
+
+}
@@ -0,0 +1,195 @@
+package com.u.core.node;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.RestrictTo;
+import com.u.core.FlowArgs;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Node of a graph. Nodes are immutable, so they can be safely used as keys while inside a graph.
+ */
+public class Node {
+
+    private static final AtomicLong NEXT_ID = new AtomicLong();
+
+    private final long id;
+
+    @NonNull
+    private final Class<?> descriptor;
+
+    @NonNull
+    private final NodeSelector selector;
+
+    @Nullable
+    private final String tag;
+
+    private final int hash;
+
+    public Node(@NonNull Class<?> descriptor, @NonNull NodeSelector selector) {
+        this(descriptor, selector, null);
+    }
+
+    Node(@NonNull Class<?> descriptor, @NonNull NodeSelector selector, @Nullable String tag) {
+        this.id = NEXT_ID.getAndIncrement();
+        this.descriptor = descriptor;
+        this.selector = selector;
+        this.tag = tag;
+
+        int result = descriptor.hashCode();
+        result = 31 * result + selector.hashCode();
+        result = 31 * result + (tag != null ? tag.hashCode() : 0);
+        this.hash = result;
+    }
+
+    /**
+     * Identifier of this node instance, unique among every node created in the process.
+     * Unlike {@link #hashCode()}, two different instances never share it.
+     * @return id of the node
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY)
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Class rendered for this node. Switchers of the other modules of the library read it
+     * @return descriptor of the node
+     */
+    @NonNull
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public Class<?> getDescriptor() {
+        return descriptor;
+    }
+
+    /**
+     * Identifier if you wish to jump directly to this node
+     * @return tag reference, unique in a graph. Null if the node isnt tagged
+     */
+    public @Nullable String getTag() {
+        return tag;
+    }
+
+    @RestrictTo(RestrictTo.Scope.LIBRARY)
+    public boolean select(@Nullable FlowArgs flowParams) {
+        return selector.select(flowParams);
+    }
+
+    @NonNull
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public NodeSelector getSelector() {
+        return selector;
+    }
+
+    /**
+     * @return true if the selector of this node is an {@link AsyncNodeSelector}
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY)
+    public boolean isSelectorAsync() {
+        return selector instanceof AsyncNodeSelector;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Node)) {
+            return false;
+        }
+
+        final Node node = (Node) o;
+
+        if (hash != node.hash) {
+            return false;
+        }
+        if (!getDescriptor().equals(node.getDescriptor())) {
+            return false;
+        }
+        if (!selector.equals(node.selector)) {
+            return false;
+        }
+        return getTag() != null ? getTag().equals(node.getTag()) : node.getTag() == null;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "Node{" + descriptor.getSimpleName() + (tag != null ? ", tag=" + tag : "") + "}";
+    }
+
+    /**
+     * Create a new builder of nodes
+     * @return Builder of nodes
+     */
+    public static @NonNull Node.Builder create() {
+        return new Builder();
+    }
+
+    /**
+     * Static inner class for creating nodes
+     */
+    public static class Builder {
+
+        private Class<?> descriptor;
+        private NodeSelector selector;
+        private String tag;
+
+        /**
+         * Constructor.
+         */
+        public Builder() {
+            // Default constructor
+        }
+
+        /**
+         * Class that will be rendered by the node switcher when this node is commited
+         * @param descriptor class to render
+         * @return builder instance
+         */
+        public @NonNull Builder descriptor(@NonNull Class<?> descriptor) {
+            this.descriptor = descriptor;
+            return this;
+        }
+
+        /**
+         * Selector for knowing if the node should be picked
+         * @param selector instance
+         * @return builder instance
+         */
+        public @NonNull Builder selector(@NonNull NodeSelector selector) {
+            this.selector = selector;
+            return this;
+        }
+
+        /**
+         * Identifier if you wish to jump directly to this node
+         * @param tag tag reference. Unique
+         * @return builder instance
+         */
+        public @NonNull Builder tag(@Nullable String tag) {
+            this.tag = tag;
+            return this;
+        }
+
+        /**
+         * Create a new node from the provided parameters
+         * @return Node instance
+         */
+        public @NonNull Node build() {
+            if (
+                descriptor == null ||
+                selector == null
+                ) {
+                throw new IllegalStateException("Missing parameters for constructing a node");
+            }
+
+            return new Node(descriptor, selector, tag);
+        }
+
+    }
+}
@@ -0,0 +1,57 @@
+package com.u.core.node;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import com.u.core.Router;
+
+/**
+ * Created by saguilera on 6/10/17.
+ */
+public interface NodeSwitcher<RenderObject> {
+
+    /**
+     * Commit the class into the parent.
+     * The class should be an instance of RenderObject. You should validate that previously
+     * (else it will throw a bad cast when returning the instance)
+     *
+     * @param clazz to render
+     * @param how to commit it (animations?)
+     * @param identifier of the node that is being commited, unique for each node
+     * @return rendered instance (view/fragment/etc)
+     */
+    @Nullable RenderObject commit(@NonNull Class<?> clazz, @Router.Direction int how, long identifier);
+
+    /**
+     * This method is called when there was a jump in the flow of the graph node. If you have a cache
+     * of the currently rendered objects, its safe to remove them at this point.
+     */
+    void clearAll();
+
+    /**
+     * The router went through the node but didnt commit it, because a later commit coalesced it
+     * (see {@link Router.Builder#coalesce(boolean)}). Its called in order, before the commit of the
+     * last node. If you mirror the backstack of the router, record it as if it was commited.
+     *
+     * @param clazz of the node
+     * @param how it would have been commited
+     * @param identifier of the node
+     */
+    void skip(@NonNull Class<?> clazz, @Router.Direction int how, long identifier);
+
+    /**
+     * Prepare the render object of a node that is likely to be commited soon, so the commit is
+     * faster. Its a hint, implementations are free to do nothing. Dont attach it to the parent.
+     *
+     * @param clazz to render
+     * @param identifier of the node
+     */
+    void prefetch(@NonNull Class<?> clazz, long identifier);
+
+    /**
+     * The node wont be commited soon anymore, release anything prefetched for it.
+     *
+     * @param identifier of the node
+     */
+    void cancelPrefetch(long identifier);
+
+}
@@ -0,0 +1,27 @@
+package com.u.core.trace;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Marks sections of the work done by a router, eg. for seeing them in system traces. Set it with
+ * {@link com.u.core.Router.Builder#tracer(Tracer)}. When none is set, the router doesnt trace anything.
+ *
+ * <p>Sections are nested and always ended in the same thread they began. Selectors evaluated with
+ * {@link com.u.core.Router#nextAsync} are traced from the selector executor threads.</p>
+ *
+ * See {@link SystraceTracer} for the android implementation.
+ */
+public interface Tracer {
+
+    /**
+     * Begin a section
+     * @param name of the section
+     */
+    void beginSection(@NonNull String name);
+
+    /**
+     * End the last section begun in the current thread
+     */
+    void endSection();
+
+}
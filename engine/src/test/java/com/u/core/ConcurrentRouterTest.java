@@ -0,0 +1,123 @@
+package com.u.core;
+
+import com.u.core.graph.Graph;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ConcurrentRouterTest {
+
+    @Test
+    public void appliesTheMovesInTheWriter() throws Exception {
+        Graph graph = Flows.ages();
+        Flows.QueueExecutor writer = new Flows.QueueExecutor();
+        ConcurrentRouter<Long> router = new ConcurrentRouter<>(Router.<Long>create()
+            .with(graph)
+            .switcher(new Flows.RecordingSwitcher())
+            .build(), writer);
+
+        Future<Long> root = router.fromRoot();
+        Future<Long> adult = router.next(Flows.age(30));
+        assertFalse(root.isDone());
+        assertNull(router.getCurrentNode());
+        assertEquals(1, writer.tasks.size());
+
+        writer.runAll();
+
+        assertEquals(graph.getNodeByTag("root").getId(), (long) root.get());
+        assertEquals(graph.getNodeByTag("adult").getId(), (long) adult.get());
+        assertSame(graph.getNodeByTag("adult"), router.getCurrentNode());
+        assertEquals(2, router.getDepth());
+    }
+
+    @Test
+    public void reportsTheErrorsInTheFuture() throws InterruptedException {
+        Flows.QueueExecutor writer = new Flows.QueueExecutor();
+        ConcurrentRouter<Long> router = new ConcurrentRouter<>(Router.<Long>create()
+            .with(Flows.ages())
+            .switcher(new Flows.RecordingSwitcher())
+            .build(), writer);
+
+        Future<Long> next = router.next(Flows.age(30));
+        writer.runAll();
+
+        try {
+            next.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void movesFromManyThreadsInOrder() throws Exception {
+        ExecutorService writer = Executors.newSingleThreadExecutor();
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        final ConcurrentRouter<Long> router = new ConcurrentRouter<>(Router.<Long>create()
+            .with(Flows.ages())
+            .switcher(new Flows.RecordingSwitcher())
+            .build(), writer);
+        router.fromRoot().get();
+
+        List<Future<?>> moves = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            moves.add(callers.submit(new Runnable() {
+                @Override
+                public void run() {
+                    router.next(Flows.age(30));
+                    router.back();
+                }
+            }));
+        }
+        for (Future<?> move : moves) {
+            move.get();
+        }
+        // Queued after every move, so it runs last
+        router.jump("root", Router.DIRECTION_NONE).get();
+
+        callers.shutdown();
+        writer.shutdown();
+        assertTrue(writer.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals("root", router.getCurrentNode().getTag());
+        assertEquals(1, router.getDepth());
+    }
+
+    @Test
+    public void waitingInTheWriterFails() throws Exception {
+        Flows.QueueExecutor writer = new Flows.QueueExecutor();
+        Router<Long> wrapped = Router.<Long>create()
+            .with(Flows.ages())
+            .switcher(new Flows.RecordingSwitcher())
+            .build();
+        final ConcurrentRouter<Long> router = new ConcurrentRouter<>(wrapped, writer);
+        final List<Exception> errors = new ArrayList<>();
+        wrapped.addOnNodeCommitListener(new Router.OnNodeCommitListener<Long>() {
+            @Override
+            public void onNodeCommited(Long rendered, String nodeTag) {
+                if ("root".equals(nodeTag)) {
+                    try {
+                        router.next(Flows.age(30)).get();
+                    } catch (Exception e) {
+                        errors.add(e);
+                    }
+                }
+            }
+        });
+
+        router.fromRoot();
+        writer.runAll();
+
+        assertEquals(1, errors.size());
+        assertTrue(errors.get(0) instanceof IllegalStateException);
+        // The move is still applied after the one that queued it
+        assertEquals("adult", router.getCurrentNode().getTag());
+    }
+
+}
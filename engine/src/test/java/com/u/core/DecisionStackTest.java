@@ -0,0 +1,67 @@
+package com.u.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class DecisionStackTest {
+
+    @Test
+    public void growsPastItsCapacity() {
+        DecisionStack decisions = new DecisionStack();
+        for (int i = 0; i < 100; i++) {
+            decisions.push(i);
+        }
+
+        assertEquals(100, decisions.size());
+        assertEquals(99, decisions.peek());
+        assertEquals(42, decisions.get(42));
+        assertEquals(99, decisions.pop());
+        assertEquals(98, decisions.peek());
+    }
+
+    @Test
+    public void findsTheLastDecision() {
+        DecisionStack decisions = new DecisionStack();
+        decisions.push(3);
+        decisions.push(5);
+        decisions.push(3);
+
+        assertEquals(2, decisions.lastIndexOf(3));
+        assertEquals(1, decisions.lastIndexOf(5));
+        assertEquals(-1, decisions.lastIndexOf(7));
+    }
+
+    @Test
+    public void truncatesToASmallerSize() {
+        DecisionStack decisions = new DecisionStack();
+        decisions.push(1);
+        decisions.push(2);
+        decisions.push(3);
+
+        decisions.truncate(1);
+
+        assertEquals(1, decisions.size());
+        assertEquals(1, decisions.peek());
+        assertArrayEquals(new int[] { 1 }, decisions.toArray());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void cantTruncateToABiggerSize() {
+        DecisionStack decisions = new DecisionStack();
+        decisions.push(1);
+
+        decisions.truncate(2);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void cantPeekWhenEmpty() {
+        DecisionStack decisions = new DecisionStack();
+        decisions.push(1);
+        decisions.clear();
+
+        assertTrue(decisions.isEmpty());
+        decisions.peek();
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.u.core;
+
+import com.u.core.graph.DirectedAcyclicGraph;
+import com.u.core.graph.Graph;
+import com.u.core.node.Node;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FlowSessionTest {
+
+    @Test
+    public void movesLikeARouter() {
+        FlowEngine engine = new FlowEngine(Flows.ages());
+        Graph graph = engine.getGraph();
+        FlowSession session = engine.newSession();
+        Router<Long> router = Router.<Long>create()
+            .with(graph)
+            .switcher(new Flows.RecordingSwitcher())
+            .build();
+
+        assertNull(session.getCurrentNode());
+        router.fromRoot();
+        assertSame(router.getCurrentNode(), session.start());
+
+        int[] ages = { 30, 30, 30, 30 };
+        for (int age : ages) {
+            router.next(Flows.age(age));
+            session.next(Flows.age(age));
+            assertSame(router.getCurrentNode(), session.getCurrentNode());
+            assertEquals(router.getDepth(), session.getDepth());
+        }
+
+        for (int i = 0; i < 5; i++) {
+            router.back();
+            session.back();
+            assertSame(router.getCurrentNode(), session.getCurrentNode());
+        }
+
+        router.jump("end");
+        session.jump("end");
+        for (int i = 0; i < 4; i++) {
+            router.back();
+            session.back();
+            assertSame(router.getCurrentNode(), session.getCurrentNode());
+            assertEquals(router.getDepth(), session.getDepth());
+        }
+    }
+
+    @Test
+    public void returnsTheGraphInstances() {
+        FlowEngine engine = new FlowEngine(Flows.ages());
+        FlowSession session = engine.newSession();
+        Node equal = Flows.node("work", Flows.ALWAYS);
+
+        session.start();
+        Node work = session.jump(equal);
+
+        assertSame(engine.getGraph().getNodeByTag("work"), work);
+        assertSame(work, session.back(Flows.node("work", Flows.ALWAYS)));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void cantJumpOutsideTheGraph() {
+        new FlowEngine(Flows.ages()).newSession().jump(Flows.node("other", Flows.ALWAYS));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void cantStartAnEmptyGraph() {
+        new FlowEngine(new DirectedAcyclicGraph()).newSession().start();
+    }
+
+    @Test
+    public void canBeMovedFromManyThreads() throws InterruptedException {
+        final FlowSession session = new FlowEngine(Flows.ages()).newSession();
+        session.start();
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicInteger moves = new AtomicInteger();
+        final AtomicInteger failures = new AtomicInteger();
+
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        for (int j = 0; j < 100000; j++) {
+                            if (session.next(Flows.age(30)) != null) {
+                                moves.incrementAndGet();
+                            }
+                            if (session.back() != null) {
+                                moves.decrementAndGet();
+                            }
+                        }
+                    } catch (RuntimeException | InterruptedException e) {
+                        failures.incrementAndGet();
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Each move is applied whole, so the depth matches the moves that succeeded
+        assertEquals(0, failures.get());
+        assertEquals(1 + moves.get(), session.getDepth());
+    }
+
+}
@@ -0,0 +1,134 @@
+package com.u.core;
+
+import com.u.core.graph.DirectedAcyclicGraph;
+import com.u.core.graph.Graph;
+import com.u.core.node.ConditionSelector;
+import com.u.core.node.Node;
+import com.u.core.node.NodeSelector;
+import com.u.core.node.NodeSwitcher;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Graphs and switchers shared by the tests.
+ */
+final class Flows {
+
+    static final NodeSelector ALWAYS = new NodeSelector() {
+        @Override
+        public boolean select(FlowArgs args) {
+            return true;
+        }
+    };
+
+    private Flows() {
+        // Only static methods
+    }
+
+    static Node node(String tag, NodeSelector selector) {
+        return Node.create()
+            .descriptor(Object.class)
+            .tag(tag)
+            .selector(selector)
+            .build();
+    }
+
+    /**
+     * <pre>
+     * root -> minor -> school -> end
+     *     \_> adult -> work  _/
+     * </pre>
+     * Minor and adult select by the "age" arg, the rest always select.
+     */
+    static DirectedAcyclicGraph ages() {
+        DirectedAcyclicGraph graph = new DirectedAcyclicGraph();
+        Node root = node("root", ALWAYS);
+        Node minor = node("minor", ConditionSelector.lessThan("age", 18));
+        Node adult = node("adult", ConditionSelector.atLeast("age", 18));
+        Node school = node("school", ALWAYS);
+        Node work = node("work", ALWAYS);
+        Node end = node("end", ALWAYS);
+        for (Node node : new Node[] { root, minor, adult, school, work, end }) {
+            graph.add(node);
+        }
+        graph.connect(root, minor);
+        graph.connect(root, adult);
+        graph.connect(minor, school);
+        graph.connect(adult, work);
+        graph.connect(school, end);
+        graph.connect(work, end);
+        return graph;
+    }
+
+    static MapArgs age(int age) {
+        return new MapArgs().put("age", age);
+    }
+
+    /**
+     * Renders the identifier of each commited node, and records the moves it was asked for. The
+     * prefetched identifiers are the ones not commited nor cancelled yet
+     */
+    static final class RecordingSwitcher implements NodeSwitcher<Long> {
+
+        final List<Long> commits = new ArrayList<>();
+        final List<Integer> directions = new ArrayList<>();
+        final List<Long> skips = new ArrayList<>();
+        final List<Long> prefetched = new ArrayList<>();
+        int clears;
+
+        @Override
+        public Long commit(Class<?> clazz, @Router.Direction int how, long identifier) {
+            commits.add(identifier);
+            directions.add(how);
+            prefetched.remove(identifier);
+            return identifier;
+        }
+
+        @Override
+        public void clearAll() {
+            clears++;
+        }
+
+        @Override
+        public void skip(Class<?> clazz, @Router.Direction int how, long identifier) {
+            skips.add(identifier);
+        }
+
+        @Override
+        public void prefetch(Class<?> clazz, long identifier) {
+            prefetched.add(identifier);
+        }
+
+        @Override
+        public void cancelPrefetch(long identifier) {
+            prefetched.remove(identifier);
+        }
+
+    }
+
+    /**
+     * Executor that runs the tasks only when asked to
+     */
+    static final class QueueExecutor implements Executor {
+
+        final List<Runnable> tasks = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        void runLast() {
+            tasks.remove(tasks.size() - 1).run();
+        }
+
+        void runAll() {
+            while (!tasks.isEmpty()) {
+                tasks.remove(0).run();
+            }
+        }
+
+    }
+
+}
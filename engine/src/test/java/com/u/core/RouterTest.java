@@ -0,0 +1,460 @@
+package com.u.core;
+
+import com.u.core.graph.DirectedAcyclicGraph;
+import com.u.core.graph.Graph;
+import com.u.core.node.AsyncNodeSelector;
+import com.u.core.node.CacheableNodeSelector;
+import com.u.core.node.Node;
+import com.u.core.node.NodeSelector;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RouterTest {
+
+    private static Router<Long> router(Graph graph, Flows.RecordingSwitcher switcher) {
+        return Router.<Long>create()
+            .with(graph)
+            .switcher(switcher)
+            .build();
+    }
+
+    private static long id(Graph graph, String tag) {
+        return graph.getNodeByTag(tag).getId();
+    }
+
+    @Test
+    public void movesTheSameInBothGraphs() {
+        movesForwardAndBack(Flows.ages());
+        movesForwardAndBack(Flows.ages().freeze());
+    }
+
+    private static void movesForwardAndBack(Graph graph) {
+        Flows.RecordingSwitcher switcher = new Flows.RecordingSwitcher();
+        Router<Long> router = router(graph, switcher);
+
+        assertEquals(id(graph, "root"), (long) router.fromRoot());
+        assertEquals(id(graph, "adult"), (long) router.next(Flows.age(30)));
+        assertEquals(id(graph, "work"), (long) router.next(Flows.age(30)));
+        assertEquals(id(graph, "end"), (long) router.next(Flows.age(30)));
+        assertNull(router.next(Flows.age(30)));
+        assertEquals(4, router.getDepth());
+
+        assertEquals(id(graph, "work"), (long) router.back());
+        assertEquals(id(graph, "root"), (long) router.back("root"));
+        assertEquals(1, router.getDepth());
+        assertNull(router.back());
+
+        assertEquals(id(graph, "minor"), (long) router.next(Flows.age(10)));
+        assertSame(graph.getNodeByTag("minor"), router.getCurrentNode());
+        assertEquals(Router.DIRECTION_NONE, (int) switcher.directions.get(0));
+        assertEquals(Router.DIRECTION_FORWARD, (int) switcher.directions.get(1));
+        assertEquals(Router.DIRECTION_BACKWARD, (int) switcher.directions.get(4));
+    }
+
+    @Test
+    public void backAfterJumpingUsesTheIncomingEdges() {
+        backAfterJumping(Flows.ages());
+        backAfterJumping(Flows.ages().freeze());
+    }
+
+    private static void backAfterJumping(Graph graph) {
+        Router<Long> router = router(graph, new Flows.RecordingSwitcher());
+
+        router.jump("end");
+        // Both incoming edges always select, the first one is picked
+        assertEquals(id(graph, "school"), (long) router.back());
+        assertEquals(1, router.getDepth());
+        assertEquals(id(graph, "minor"), (long) router.back());
+        assertEquals(id(graph, "root"), (long) router.back());
+        assertNull(router.back());
+    }
+
+    @Test
+    public void commitsTheGraphInstance() {
+        Graph graph = Flows.ages();
+        Router<Long> router = router(graph, new Flows.RecordingSwitcher());
+        Node equal = Flows.node("work", Flows.ALWAYS);
+
+        router.fromRoot();
+        assertEquals(id(graph, "work"), (long) router.jump(equal));
+        assertSame(graph.getNodeByTag("work"), router.getCurrentNode());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void cantGoBackToNodesNotTraversed() {
+        Router<Long> router = router(Flows.ages(), new Flows.RecordingSwitcher());
+
+        router.fromRoot();
+        router.back("work");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void cantMoveForwardWithoutStart() {
+        router(Flows.ages(), new Flows.RecordingSwitcher()).next(Flows.age(10));
+    }
+
+    @Test
+    public void restoresTheSavedState() {
+        restoresState(Flows.ages());
+        restoresState(Flows.ages().freeze());
+    }
+
+    private static void restoresState(Graph graph) {
+        Router<Long> router = router(graph, new Flows.RecordingSwitcher());
+        router.fromRoot();
+        router.next(Flows.age(12));
+        router.next(Flows.age(12));
+        RouterState state = router.saveState();
+
+        Flows.RecordingSwitcher switcher = new Flows.RecordingSwitcher();
+        Router<Long> restored = router(graph, switcher);
+        assertTrue(restored.restoreState(state));
+        assertEquals(3, restored.getDepth());
+        assertEquals(1, switcher.commits.size());
+        assertEquals(id(graph, "school"), (long) switcher.commits.get(0));
+        assertEquals(id(graph, "minor"), (long) restored.back());
+        assertEquals(id(graph, "root"), (long) restored.back());
+    }
+
+    @Test
+    public void doesntRestoreTheStateOfAnotherGraph() {
+        Graph graph = Flows.ages();
+        Router<Long> router = router(graph, new Flows.RecordingSwitcher());
+        router.fromRoot();
+        RouterState state = router.saveState();
+
+        graph.connect(graph.getNodeByTag("root"), graph.getNodeByTag("end"));
+
+        assertFalse(router(graph, new Flows.RecordingSwitcher()).restoreState(state));
+        assertFalse(router.restoreState(new RouterState(new int[0], state.getFingerprint())));
+    }
+
+    @Test
+    public void restoresTheStateWhenCoalescing() {
+        Graph graph = Flows.ages();
+        Router<Long> router = router(graph, new Flows.RecordingSwitcher());
+        router.fromRoot();
+        router.next(Flows.age(30));
+        RouterState state = router.saveState();
+
+        Flows.RecordingSwitcher switcher = new Flows.RecordingSwitcher();
+        Flows.QueueExecutor main = new Flows.QueueExecutor();
+        Router<Long> restored = Router.<Long>create()
+            .with(graph)
+            .switcher(switcher)
+            .mainExecutor(main)
+            .coalesce(true)
+            .build();
+
+        // Nothing is rendered yet, but the state was restored
+        assertTrue(restored.restoreState(state));
+        assertEquals(2, restored.getDepth());
+        assertTrue(switcher.commits.isEmpty());
+
+        main.runAll();
+
+        assertEquals(1, switcher.commits.size());
+        assertEquals(id(graph, "adult"), (long) switcher.commits.get(0));
+    }
+
+    /**
+     * Selects by age, counting the evaluations
+     */
+    private static final class CountedAge implements CacheableNodeSelector {
+
+        private final int from;
+        private final int to;
+        int evaluations;
+
+        CountedAge(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public String[] getKeys() {
+            return new String[] { "age" };
+        }
+
+        @Override
+        public boolean select(FlowArgs args) {
+            evaluations++;
+            int age = ((Number) args.get("age")).intValue();
+            return age >= from && age < to;
+        }
+
+    }
+
+    @Test
+    public void memoizesSelections() {
+        CountedAge young = new CountedAge(0, 60);
+        CountedAge old = new CountedAge(60, 200);
+        DirectedAcyclicGraph source = new DirectedAcyclicGraph();
+        Node work = Flows.node("work", Flows.ALWAYS);
+        source.add(work);
+        source.add(Flows.node("young", young));
+        source.add(Flows.node("old", old));
+        source.connect(work, source.getNodeByTag("young"));
+        source.connect(work, source.getNodeByTag("old"));
+        Graph graph = source.freeze();
+        Router<Long> router = Router.<Long>create()
+            .with(graph)
+            .switcher(new Flows.RecordingSwitcher())
+            .memoize(8)
+            .build();
+
+        // The memo lives while the flow does, moving back doesnt clear it
+        router.fromRoot();
+        for (int i = 0; i < 3; i++) {
+            assertEquals(id(graph, "old"), (long) router.next(Flows.age(70)));
+            router.back();
+        }
+        assertEquals(1, young.evaluations);
+        assertEquals(1, old.evaluations);
+
+        assertEquals(id(graph, "young"), (long) router.next(Flows.age(20)));
+        assertEquals(2, young.evaluations);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void memoizingNeedsAFrozenGraph() {
+        Router.<Long>create()
+            .with(Flows.ages())
+            .switcher(new Flows.RecordingSwitcher())
+            .memoize(8)
+            .build();
+    }
+
+    @Test
+    public void coalescesCommitsUntilTheMainExecutorRuns() {
+        Graph graph = Flows.ages();
+        Flows.RecordingSwitcher switcher = new Flows.RecordingSwitcher();
+        Flows.QueueExecutor main = new Flows.QueueExecutor();
+        Router<Long> router = Router.<Long>create()
+            .with(graph)
+            .switcher(switcher)
+            .mainExecutor(main)
+            .coalesce(true)
+            .build();
+
+        router.fromRoot();
+        router.next(Flows.age(30));
+        router.next(Flows.age(30));
+        assertTrue(switcher.commits.isEmpty());
+        assertEquals(1, main.tasks.size());
+
+        main.runAll();
+
+        assertEquals(1, switcher.commits.size());
+        assertEquals(id(graph, "work"), (long) switcher.commits.get(0));
+        assertEquals(2, switcher.skips.size());
+        assertEquals(id(graph, "root"), (long) switcher.skips.get(0));
+        assertEquals(id(graph, "adult"), (long) switcher.skips.get(1));
+        assertEquals(3, router.getDepth());
+    }
+
+    @Test
+    public void prefetchesTheMostSelectedEdges() {
+        Graph graph = Flows.ages();
+        Flows.RecordingSwitcher switcher = new Flows.RecordingSwitcher();
+        Router<Long> router = Router.<Long>create()
+            .with(graph)
+            .switcher(switcher)
+            .prefetch(new PrefetchPolicy(1, 1))
+            .build();
+
+        router.fromRoot();
+        router.next(Flows.age(30));
+        router.back();
+        router.next(Flows.age(30));
+        router.back();
+
+        assertEquals(1, switcher.prefetched.size());
+        assertEquals(id(graph, "adult"), (long) switcher.prefetched.get(0));
+    }
+
+    /**
+     * Records what a move asynchronously was notified of
+     */
+    private static final class RecordingCallback implements Router.NextCallback<Long> {
+
+        final List<Long> nexts = new ArrayList<>();
+        final List<RuntimeException> errors = new ArrayList<>();
+
+        @Override
+        public void onNext(Long rendered) {
+            nexts.add(rendered);
+        }
+
+        @Override
+        public void onError(RuntimeException error) {
+            errors.add(error);
+        }
+
+    }
+
+    /**
+     * <pre>
+     * root -> first
+     *     \_> second
+     * </pre>
+     */
+    private static Graph branches(NodeSelector first, NodeSelector second) {
+        DirectedAcyclicGraph graph = new DirectedAcyclicGraph();
+        Node root = Flows.node("root", Flows.ALWAYS);
+        graph.add(root);
+        graph.add(Flows.node("first", first));
+        graph.add(Flows.node("second", second));
+        graph.connect(root, graph.getNodeByTag("first"));
+        graph.connect(root, graph.getNodeByTag("second"));
+        return graph;
+    }
+
+    private static Router<Long> asyncRouter(Graph graph, Flows.QueueExecutor selectors, Flows.QueueExecutor main) {
+        return Router.<Long>create()
+            .with(graph)
+            .switcher(new Flows.RecordingSwitcher())
+            .selectorExecutor(selectors)
+            .mainExecutor(main)
+            .build();
+    }
+
+    private static NodeSelector sleeping(final long millis, final boolean result) {
+        return new NodeSelector() {
+            @Override
+            public boolean select(FlowArgs args) {
+                try {
+                    Thread.sleep(millis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return result;
+            }
+        };
+    }
+
+    @Test
+    public void selectsAsyncAndCommitsInTheMainExecutor() {
+        Graph graph = Flows.ages();
+        Flows.QueueExecutor selectors = new Flows.QueueExecutor();
+        Flows.QueueExecutor main = new Flows.QueueExecutor();
+        Router<Long> router = asyncRouter(graph, selectors, main);
+        RecordingCallback callback = new RecordingCallback();
+        router.fromRoot();
+
+        router.nextAsync(Flows.age(30), callback);
+        selectors.runAll();
+        assertTrue(callback.nexts.isEmpty());
+        main.runAll();
+
+        assertEquals(1, callback.nexts.size());
+        assertEquals(id(graph, "adult"), (long) callback.nexts.get(0));
+        assertSame(graph.getNodeByTag("adult"), router.getCurrentNode());
+    }
+
+    @Test
+    public void slowSelectorPastTheTimeoutFallsBack() {
+        Graph graph = branches(sleeping(200, true), Flows.ALWAYS);
+        Flows.QueueExecutor selectors = new Flows.QueueExecutor();
+        Flows.QueueExecutor main = new Flows.QueueExecutor();
+        Router<Long> router = asyncRouter(graph, selectors, main);
+        RecordingCallback callback = new RecordingCallback();
+        router.fromRoot();
+
+        router.nextAsync(Flows.age(30), 20, TimeUnit.MILLISECONDS, graph.getNodeByTag("second"), callback);
+        selectors.runAll();
+        main.runAll();
+
+        assertEquals(id(graph, "second"), (long) callback.nexts.get(0));
+    }
+
+    @Test
+    public void asyncSelectorNotStartedFallsBack() {
+        AsyncNodeSelector never = new AsyncNodeSelector() {
+            @Override
+            public boolean select(FlowArgs args) {
+                return true;
+            }
+        };
+        Graph graph = branches(never, Flows.ALWAYS);
+        Flows.QueueExecutor selectors = new Flows.QueueExecutor();
+        Flows.QueueExecutor main = new Flows.QueueExecutor();
+        Router<Long> router = asyncRouter(graph, selectors, main);
+        RecordingCallback callback = new RecordingCallback();
+        router.fromRoot();
+
+        router.nextAsync(Flows.age(30), 20, TimeUnit.MILLISECONDS, graph.getNodeByTag("second"), callback);
+        // Only the coordinator runs, the async selector is never started
+        selectors.runLast();
+        main.runAll();
+
+        assertEquals(id(graph, "second"), (long) callback.nexts.get(0));
+    }
+
+    @Test
+    public void timeoutCountsWhileQueued() throws InterruptedException {
+        Graph graph = branches(Flows.ALWAYS, Flows.ALWAYS);
+        Flows.QueueExecutor selectors = new Flows.QueueExecutor();
+        Flows.QueueExecutor main = new Flows.QueueExecutor();
+        Router<Long> router = asyncRouter(graph, selectors, main);
+        RecordingCallback callback = new RecordingCallback();
+        router.fromRoot();
+
+        router.nextAsync(Flows.age(30), 5, TimeUnit.MILLISECONDS, graph.getNodeByTag("second"), callback);
+        Thread.sleep(20);
+        selectors.runAll();
+        main.runAll();
+
+        assertEquals(id(graph, "second"), (long) callback.nexts.get(0));
+    }
+
+    @Test
+    public void failedSelectorIsReportedToTheCallback() {
+        NodeSelector failing = new NodeSelector() {
+            @Override
+            public boolean select(FlowArgs args) {
+                throw new IllegalArgumentException("boom");
+            }
+        };
+        Graph graph = branches(failing, Flows.ALWAYS);
+        Flows.QueueExecutor selectors = new Flows.QueueExecutor();
+        Flows.QueueExecutor main = new Flows.QueueExecutor();
+        Router<Long> router = asyncRouter(graph, selectors, main);
+        RecordingCallback callback = new RecordingCallback();
+        router.fromRoot();
+
+        router.nextAsync(Flows.age(30), callback);
+        selectors.runAll();
+        main.runAll();
+
+        assertTrue(callback.nexts.isEmpty());
+        assertEquals(1, callback.errors.size());
+        assertTrue(callback.errors.get(0) instanceof IllegalArgumentException);
+        assertSame(graph.getNodeByTag("root"), router.getCurrentNode());
+    }
+
+    @Test
+    public void staleSelectionIsntCommited() {
+        Graph graph = Flows.ages();
+        Flows.QueueExecutor selectors = new Flows.QueueExecutor();
+        Flows.QueueExecutor main = new Flows.QueueExecutor();
+        Router<Long> router = asyncRouter(graph, selectors, main);
+        RecordingCallback callback = new RecordingCallback();
+        router.fromRoot();
+
+        router.nextAsync(Flows.age(30), callback);
+        selectors.runAll();
+        // The flow moves before the selection is delivered
+        router.jump("work");
+        main.runAll();
+
+        assertEquals(1, callback.nexts.size());
+        assertNull(callback.nexts.get(0));
+        assertSame(graph.getNodeByTag("work"), router.getCurrentNode());
+    }
+
+}
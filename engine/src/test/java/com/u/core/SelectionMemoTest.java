@@ -0,0 +1,92 @@
+package com.u.core;
+
+import com.u.core.node.ConditionSelector;
+import com.u.core.node.Node;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SelectionMemoTest {
+
+    private static final List<Node> EDGES = Arrays.asList(
+        Flows.node("minor", ConditionSelector.lessThan("age", 18)),
+        Flows.node("adult", ConditionSelector.atLeast("age", 18)));
+
+    @Test
+    public void missesUntilTheSelectionIsPut() {
+        SelectionMemo memo = new SelectionMemo(4);
+
+        assertEquals(SelectionMemo.MISS, memo.get(0, EDGES, Flows.age(20)));
+        memo.put(1);
+
+        assertEquals(1, memo.get(0, EDGES, Flows.age(20)));
+        assertEquals(SelectionMemo.MISS, memo.get(0, EDGES, Flows.age(10)));
+        assertEquals(SelectionMemo.MISS, memo.get(1, EDGES, Flows.age(20)));
+    }
+
+    @Test
+    public void memoizesThatNoneWasSelected() {
+        SelectionMemo memo = new SelectionMemo(4);
+
+        assertEquals(SelectionMemo.MISS, memo.get(0, EDGES, new MapArgs()));
+        memo.put(-1);
+
+        assertEquals(-1, memo.get(0, EDGES, new MapArgs()));
+    }
+
+    @Test
+    public void onlyReadsTheKeysOfTheEdges() {
+        SelectionMemo memo = new SelectionMemo(4);
+
+        memo.get(0, EDGES, Flows.age(20).put("name", "a"));
+        memo.put(1);
+
+        assertEquals(1, memo.get(0, EDGES, Flows.age(20).put("name", "b")));
+    }
+
+    @Test
+    public void comparesArrayValuesByContent() {
+        SelectionMemo memo = new SelectionMemo(4);
+        List<Node> edges = Arrays.asList(
+            Flows.node("a", ConditionSelector.equalTo("tag", "a")),
+            Flows.node("b", ConditionSelector.equalTo("tag", "b")));
+
+        memo.get(0, edges, new MapArgs().put("tag", new int[] { 1, 2 }));
+        memo.put(-1);
+
+        assertEquals(-1, memo.get(0, edges, new MapArgs().put("tag", new int[] { 1, 2 })));
+        assertEquals(SelectionMemo.MISS, memo.get(0, edges, new MapArgs().put("tag", new int[] { 1, 3 })));
+    }
+
+    @Test
+    public void dropsTheLeastRecentlyUsed() {
+        SelectionMemo memo = new SelectionMemo(2);
+
+        memo.get(0, EDGES, Flows.age(1));
+        memo.put(0);
+        memo.get(0, EDGES, Flows.age(2));
+        memo.put(0);
+        memo.get(0, EDGES, Flows.age(1));
+        memo.get(0, EDGES, Flows.age(3));
+        memo.put(0);
+
+        assertEquals(0, memo.get(0, EDGES, Flows.age(1)));
+        assertEquals(SelectionMemo.MISS, memo.get(0, EDGES, Flows.age(2)));
+    }
+
+    @Test
+    public void doesntMemoizeUncacheableEdges() {
+        SelectionMemo memo = new SelectionMemo(4);
+        List<Node> edges = Arrays.asList(Flows.node("any", Flows.ALWAYS), EDGES.get(0));
+
+        assertEquals(SelectionMemo.NOT_MEMOIZED, memo.get(0, edges, Flows.age(20)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void needsAPositiveCapacity() {
+        new SelectionMemo(0);
+    }
+
+}
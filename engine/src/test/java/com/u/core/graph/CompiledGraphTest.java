@@ -0,0 +1,134 @@
+package com.u.core.graph;
+
+import com.u.core.FlowArgs;
+import com.u.core.node.ConditionSelector;
+import com.u.core.node.Node;
+import com.u.core.node.NodeSelector;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CompiledGraphTest {
+
+    private static final NodeSelector ALWAYS = new NodeSelector() {
+        @Override
+        public boolean select(FlowArgs args) {
+            return true;
+        }
+    };
+
+    private static Node node(String tag, NodeSelector selector) {
+        return Node.create()
+            .descriptor(Object.class)
+            .tag(tag)
+            .selector(selector)
+            .build();
+    }
+
+    /**
+     * Random graph where each node is connected from some of the ones before it
+     */
+    private static DirectedAcyclicGraph randomGraph(int size, long seed) {
+        Random random = new Random(seed);
+        DirectedAcyclicGraph graph = new DirectedAcyclicGraph();
+        Node[] nodes = new Node[size];
+        for (int i = 0; i < size; i++) {
+            nodes[i] = node("n" + i, ALWAYS);
+            graph.add(nodes[i]);
+        }
+        for (int i = 1; i < size; i++) {
+            graph.connect(nodes[random.nextInt(i)], nodes[i]);
+            for (int j = 0; j < i && j < 3; j++) {
+                Node from = nodes[random.nextInt(i)];
+                List<Node> edges = graph.getOutgoingEdges(from);
+                if (edges == null || !edges.contains(nodes[i])) {
+                    graph.connect(from, nodes[i]);
+                }
+            }
+        }
+        return graph;
+    }
+
+    @Test
+    public void sameTopologyAsTheSourceGraph() {
+        DirectedAcyclicGraph source = randomGraph(300, 7);
+        Graph compiled = source.freeze();
+
+        assertEquals(source.size(), compiled.size());
+        assertSame(source.getRoot(), compiled.getRoot());
+        assertEquals(source.getAllNodesSorted(), compiled.getAllNodesSorted());
+        for (int i = 0; i < compiled.size(); i++) {
+            // Indexes follow the sort, so they dont match the ones of the source graph
+            Node node = compiled.getNodeAt(i);
+            int sourceIndex = source.indexOf(node);
+            assertEquals(i, compiled.indexOf(node));
+            assertTrue(compiled.contains(node));
+            assertSame(node, compiled.getNodeByTag(node.getTag()));
+
+            assertEdges(source.getOutgoingEdges(sourceIndex), compiled.getOutgoingEdges(i));
+            assertEdges(source.getIncomingEdges(sourceIndex), compiled.getIncomingEdges(i));
+            assertEdges(source.getOutgoingEdges(node), compiled.getOutgoingEdges(node));
+            assertEdges(source.getIncomingEdges(node), compiled.getIncomingEdges(node));
+
+            List<Node> outgoing = compiled.getOutgoingEdges(i);
+            for (int position = 0; outgoing != null && position < outgoing.size(); position++) {
+                assertSame(outgoing.get(position), compiled.getNodeAt(compiled.getOutgoingEdgeIndex(i, position)));
+            }
+        }
+    }
+
+    private static void assertEdges(List<Node> expected, List<Node> actual) {
+        int expectedSize = expected == null ? 0 : expected.size();
+        int actualSize = actual == null ? 0 : actual.size();
+        assertEquals(expectedSize, actualSize);
+        for (int i = 0; i < expectedSize; i++) {
+            assertSame(expected.get(i), actual.get(i));
+        }
+    }
+
+    @Test
+    public void unknownNodesHaveNoIndex() {
+        Graph compiled = randomGraph(10, 1).freeze();
+        Node other = node("other", ALWAYS);
+
+        assertEquals(-1, compiled.indexOf(other));
+        assertFalse(compiled.contains(other));
+        assertNull(compiled.getNodeByTag("other"));
+    }
+
+    @Test
+    public void compilesConditionEdges() {
+        DirectedAcyclicGraph source = new DirectedAcyclicGraph();
+        Node root = node("root", ALWAYS);
+        Node minor = node("minor", ConditionSelector.lessThan("age", 18));
+        Node adult = node("adult", ConditionSelector.atLeast("age", 18));
+        Node any = node("any", ALWAYS);
+        source.add(root);
+        source.add(minor);
+        source.add(adult);
+        source.add(any);
+        source.connect(root, minor);
+        source.connect(root, adult);
+        source.connect(minor, any);
+
+        Graph compiled = source.freeze();
+
+        assertNotNull(compiled.getDecisionTable(compiled.indexOf(root)));
+        assertNull(compiled.getDecisionTable(compiled.indexOf(minor)));
+    }
+
+    @Test
+    public void freezingAgainKeepsTheGraph() {
+        Graph compiled = randomGraph(10, 2).freeze();
+
+        assertSame(compiled, compiled.freeze());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void cantBeModified() {
+        randomGraph(10, 3).freeze().add(node("other", ALWAYS));
+    }
+
+}
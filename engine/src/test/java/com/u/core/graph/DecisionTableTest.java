@@ -0,0 +1,154 @@
+package com.u.core.graph;
+
+import com.u.core.MapArgs;
+import com.u.core.node.ConditionSelector;
+import com.u.core.node.Node;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class DecisionTableTest {
+
+    private static Node node(ConditionSelector selector) {
+        return Node.create()
+            .descriptor(Object.class)
+            .selector(selector)
+            .build();
+    }
+
+    private static int selectLinear(List<Node> edges, MapArgs args) {
+        for (int i = 0; i < edges.size(); i++) {
+            if (edges.get(i).select(args)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static ConditionSelector randomCondition(Random random) {
+        double number = random.nextInt(10);
+        switch (random.nextInt(6)) {
+            case 0:
+                return ConditionSelector.lessThan("value", number);
+            case 1:
+                return ConditionSelector.atMost("value", number);
+            case 2:
+                return ConditionSelector.greaterThan("value", number);
+            case 3:
+                return ConditionSelector.atLeast("value", number);
+            case 4:
+                return ConditionSelector.equalTo("value", number);
+            default:
+                return ConditionSelector.between("value", number, number + random.nextInt(4));
+        }
+    }
+
+    @Test
+    public void selectsLikeAskingEachEdge() {
+        Random random = new Random(42);
+        for (int round = 0; round < 500; round++) {
+            List<Node> edges = new ArrayList<>();
+            for (int i = 0, size = 2 + random.nextInt(6); i < size; i++) {
+                edges.add(node(randomCondition(random)));
+            }
+            DecisionTable table = DecisionTable.compile(edges);
+            assertNotNull(table);
+
+            for (double value = -2; value <= 14; value += 0.25) {
+                MapArgs args = new MapArgs().put("value", value);
+                assertEquals("value " + value + " in " + edges, selectLinear(edges, args), table.select(args));
+            }
+            assertEquals(selectLinear(edges, new MapArgs()), table.select(new MapArgs()));
+            assertEquals(-1, table.select(null));
+        }
+    }
+
+    @Test
+    public void selectsStringValues() {
+        List<Node> edges = Arrays.asList(
+            node(ConditionSelector.equalTo("country", "ar")),
+            node(ConditionSelector.equalTo("country", "br")),
+            node(ConditionSelector.equalTo("country", "ar")));
+        DecisionTable table = DecisionTable.compile(edges);
+        assertNotNull(table);
+
+        assertEquals(0, table.select(new MapArgs().put("country", "ar")));
+        assertEquals(1, table.select(new MapArgs().put("country", "br")));
+        assertEquals(-1, table.select(new MapArgs().put("country", "uy")));
+        assertTrue(table.canSelect(0));
+        assertTrue(table.canSelect(1));
+        assertFalse(table.canSelect(2));
+    }
+
+    @Test
+    public void knowsTheEdgesThatCantBeSelected() {
+        List<Node> edges = Arrays.asList(
+            node(ConditionSelector.lessThan("age", 18)),
+            node(ConditionSelector.lessThan("age", 10)),
+            node(ConditionSelector.atLeast("age", 18)));
+        DecisionTable table = DecisionTable.compile(edges);
+        assertNotNull(table);
+
+        assertTrue(table.canSelect(0));
+        assertFalse(table.canSelect(1));
+        assertTrue(table.canSelect(2));
+        assertFalse(table.canSelect(3));
+    }
+
+    @Test
+    public void adjacentBoundsLeaveNoRegionBetweenThem() {
+        double bound = 1.0;
+        double next = Math.nextUp(bound);
+        List<Node> edges = Arrays.asList(
+            node(ConditionSelector.atMost("value", bound)),
+            node(ConditionSelector.greaterThan("value", bound)),
+            node(ConditionSelector.atLeast("value", next)));
+        DecisionTable table = DecisionTable.compile(edges);
+        assertNotNull(table);
+
+        assertEquals(0, table.select(new MapArgs().put("value", bound)));
+        assertEquals(1, table.select(new MapArgs().put("value", next)));
+        assertFalse(table.canSelect(2));
+    }
+
+    @Test
+    public void signedZerosSelectLikeAskingEachEdge() {
+        List<List<Node>> cases = Arrays.asList(
+            Arrays.asList(
+                node(ConditionSelector.equalTo("value", -0.0)),
+                node(ConditionSelector.atLeast("value", -1))),
+            Arrays.asList(
+                node(ConditionSelector.lessThan("value", 0.0)),
+                node(ConditionSelector.atLeast("value", -0.0))),
+            Arrays.asList(
+                node(ConditionSelector.atMost("value", -0.0)),
+                node(ConditionSelector.greaterThan("value", 0.0))),
+            Arrays.asList(
+                node(ConditionSelector.between("value", -0.0, 1)),
+                node(ConditionSelector.lessThan("value", 0.0))));
+        Object[] values = { -0.0, 0.0, 0, -0.0f, Math.nextUp(0.0), -Math.nextUp(0.0) };
+
+        for (List<Node> edges : cases) {
+            DecisionTable table = DecisionTable.compile(edges);
+            assertNotNull(table);
+            for (Object value : values) {
+                MapArgs args = new MapArgs().put("value", value);
+                assertEquals("value " + value + " in " + edges, selectLinear(edges, args), table.select(args));
+            }
+        }
+    }
+
+    @Test
+    public void doesntCompileMixedKeysOrSingleEdges() {
+        assertNull(DecisionTable.compile(null));
+        assertNull(DecisionTable.compile(Arrays.asList(node(ConditionSelector.lessThan("age", 18)))));
+        assertNull(DecisionTable.compile(Arrays.asList(
+            node(ConditionSelector.lessThan("age", 18)),
+            node(ConditionSelector.lessThan("height", 18)))));
+    }
+
+}
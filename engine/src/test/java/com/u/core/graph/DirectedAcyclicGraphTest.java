@@ -0,0 +1,176 @@
+package com.u.core.graph;
+
+import com.u.core.FlowArgs;
+import com.u.core.node.Node;
+import com.u.core.node.NodeSelector;
+import java.util.List;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class DirectedAcyclicGraphTest {
+
+    private static Node node(String tag) {
+        return Node.create()
+            .descriptor(Object.class)
+            .tag(tag)
+            .selector(new NodeSelector() {
+                @Override
+                public boolean select(FlowArgs args) {
+                    return true;
+                }
+            })
+            .build();
+    }
+
+    @Test
+    public void emptyGraphHasNoRoot() {
+        assertNull(new DirectedAcyclicGraph().getRoot());
+    }
+
+    @Test
+    public void rootIsTheOnlySource() {
+        Graph graph = new DirectedAcyclicGraph();
+        Node a = node("a"), b = node("b"), c = node("c");
+        graph.add(a);
+        graph.add(b);
+        graph.add(c);
+        graph.connect(b, c);
+        graph.connect(a, b);
+
+        assertSame(a, graph.getRoot());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void manySourcesHaveNoRoot() {
+        Graph graph = new DirectedAcyclicGraph();
+        graph.add(node("a"));
+        graph.add(node("b"));
+
+        graph.getRoot();
+    }
+
+    private static Graph cycleBelowTheRoot() {
+        Graph graph = new DirectedAcyclicGraph();
+        Node a = node("a"), b = node("b"), c = node("c");
+        graph.add(a);
+        graph.add(b);
+        graph.add(c);
+        graph.connect(a, b);
+        graph.connect(b, c);
+        graph.connect(c, b);
+        return graph;
+    }
+
+    @Test
+    public void rootIsKnownWithoutSorting() {
+        Graph graph = cycleBelowTheRoot();
+
+        assertSame(graph.getNodeByTag("a"), graph.getRoot());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void cycleBelowTheRootIsFoundWhenSorting() {
+        cycleBelowTheRoot().getAllNodesSorted();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void cycleBelowTheRootIsFoundWhenFreezing() {
+        cycleBelowTheRoot().freeze();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void graphWithoutSourcesIsCyclic() {
+        Graph graph = new DirectedAcyclicGraph();
+        Node a = node("a"), b = node("b");
+        graph.add(a);
+        graph.add(b);
+        graph.connect(a, b);
+        graph.connect(b, a);
+
+        graph.getRoot();
+    }
+
+    @Test
+    public void sortPutsEveryNodeBeforeItsIncomingEdges() {
+        Graph graph = new DirectedAcyclicGraph();
+        Node[] nodes = new Node[50];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = node("n" + i);
+            graph.add(nodes[i]);
+        }
+        // Connected backwards, so insertion order isnt already sorted
+        for (int i = nodes.length - 1; i > 0; i--) {
+            graph.connect(nodes[i / 2], nodes[i]);
+            if (i > 2) {
+                graph.connect(nodes[i - 1], nodes[i]);
+            }
+        }
+
+        List<Node> sorted = graph.getAllNodesSorted();
+
+        assertEquals(nodes.length, sorted.size());
+        for (Node node : sorted) {
+            List<Node> incomingEdges = graph.getIncomingEdges(node);
+            for (int i = 0; incomingEdges != null && i < incomingEdges.size(); i++) {
+                assertTrue(sorted.indexOf(incomingEdges.get(i)) > sorted.indexOf(node));
+            }
+        }
+    }
+
+    @Test
+    public void deepChainIsSortedWithoutRecursion() {
+        Graph graph = new DirectedAcyclicGraph();
+        Node previous = null;
+        for (int i = 0; i < 100000; i++) {
+            Node node = node("n" + i);
+            graph.add(node);
+            if (previous != null) {
+                graph.connect(previous, node);
+            }
+            previous = node;
+        }
+
+        assertEquals(100000, graph.getAllNodesSorted().size());
+        assertSame(previous, graph.getAllNodesSorted().get(0));
+    }
+
+    @Test
+    public void indexesAreDenseAndStable() {
+        Graph graph = new DirectedAcyclicGraph();
+        Node a = node("a"), b = node("b"), c = node("c");
+        graph.add(a);
+        graph.add(b);
+        graph.add(c);
+        graph.connect(a, c);
+        graph.connect(a, b);
+
+        assertEquals(3, graph.size());
+        for (int i = 0; i < graph.size(); i++) {
+            assertEquals(i, graph.indexOf(graph.getNodeAt(i)));
+        }
+        assertEquals(graph.indexOf(c), graph.getOutgoingEdgeIndex(graph.indexOf(a), 0));
+        assertEquals(graph.indexOf(b), graph.getOutgoingEdgeIndex(graph.indexOf(a), 1));
+        assertEquals(-1, graph.indexOf(node("d")));
+        assertSame(b, graph.getNodeByTag("b"));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void outgoingEdgeIndexIsBounded() {
+        Graph graph = new DirectedAcyclicGraph();
+        Node a = node("a"), b = node("b");
+        graph.add(a);
+        graph.add(b);
+        graph.connect(a, b);
+
+        graph.getOutgoingEdgeIndex(graph.indexOf(a), 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tagsAreUnique() {
+        Graph graph = new DirectedAcyclicGraph();
+        graph.add(node("a"));
+        graph.add(Node.create().descriptor(String.class).tag("a").selector(node("b").getSelector()).build());
+    }
+
+}
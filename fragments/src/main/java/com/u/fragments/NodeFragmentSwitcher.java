@@ -1,12 +1,15 @@
 package com.u.fragments;
 
 import android.content.ActivityNotFoundException;
+import android.os.Handler;
+import android.os.Looper;
 import android.support.annotation.IdRes;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.v4.app.Fragment;
 import android.support.v4.app.FragmentActivity;
 import android.support.v4.app.FragmentTransaction;
+import android.support.v4.util.LongSparseArray;
 import com.u.core.Router;
 import com.u.core.node.NodeSwitcher;
 import java.lang.ref.WeakReference;
@@ -19,9 +22,66 @@ public class NodeFragmentSwitcher implements NodeSwitcher<Fragment> {
     private @NonNull WeakReference<FragmentActivity> contextR;
     private @IdRes int resId;
 
+    private boolean batching;
+    private boolean commitNow;
+
+    /**
+     * Last commit while batching, waiting for the next loop of the main thread.
+     */
+    private @Nullable Fragment pendingFragment;
+    private @Nullable String pendingTag;
+    private @Router.Direction int pendingHow;
+
+    /**
+     * Fragments instantiated ahead of their commit
+     */
+    private final @NonNull LongSparseArray<Fragment> prefetched;
+
+    private final @NonNull Handler handler;
+    private final @NonNull Runnable flushPending = new Runnable() {
+        @Override
+        public void run() {
+            flush();
+        }
+    };
+
     public NodeFragmentSwitcher(@NonNull FragmentActivity context, @IdRes int resId) {
         this.contextR = new WeakReference<>(context);
         this.resId = resId;
+        this.handler = new Handler(Looper.getMainLooper());
+        this.prefetched = new LongSparseArray<>();
+    }
+
+    /**
+     * When enabled, commits done in the same loop of the main thread are collapsed into a single
+     * transaction, that only adds the last fragment. Eg. a jump followed by quick nexts only
+     * attaches the final fragment, instead of creating and destroying the views of every one.
+     *
+     * <b>Note:</b> While batching, the fragments returned by {@link #commit(Class, int, long)}
+     * are attached later on, by transactions that allow optimization (see
+     * {@link FragmentTransaction#setAllowOptimization(boolean)}).
+     *
+     * @param enabled true for batching the commits
+     * @return switcher instance
+     */
+    public @NonNull NodeFragmentSwitcher setBatchingEnabled(boolean enabled) {
+        this.batching = enabled;
+        if (!enabled) {
+            flush();
+        }
+        return this;
+    }
+
+    /**
+     * When enabled, transactions are executed synchronously so the fragment returned by
+     * {@link #commit(Class, int, long)} is already attached. This takes precedence over batching.
+     *
+     * @param enabled true for commiting synchronously
+     * @return switcher instance
+     */
+    public @NonNull NodeFragmentSwitcher setCommitNow(boolean enabled) {
+        this.commitNow = enabled;
+        return this;
     }
 
     private void findTypeOrThrow(@NonNull Class<?> clazz) {
@@ -33,7 +93,7 @@ public class NodeFragmentSwitcher implements NodeSwitcher<Fragment> {
         }
     }
 
-    private @Nullable Fragment createFragment(Class<?> clazz, long identifier) {
+    private @Nullable Fragment createFragment(Class<?> clazz, long identifier, String tag) {
         try {
             FragmentActivity context = contextR.get();
             Fragment fragment;
@@ -42,9 +102,19 @@ public class NodeFragmentSwitcher implements NodeSwitcher<Fragment> {
                 throw new ActivityNotFoundException("Activity has been removed, so this will be removed too");
             }
 
-            fragment = context.getSupportFragmentManager().findFragmentByTag(String.valueOf(identifier));
+            if (pendingFragment != null && tag.equals(pendingTag)) {
+                // Still waiting to be commited
+                return pendingFragment;
+            }
+
+            fragment = context.getSupportFragmentManager().findFragmentByTag(tag);
 
             if (fragment == null) {
+                fragment = prefetched.get(identifier);
+                if (fragment != null) {
+                    prefetched.remove(identifier);
+                    return fragment;
+                }
                 return Fragment.instantiate(context, clazz.getName());
             } else {
                 return fragment;
@@ -55,29 +125,76 @@ public class NodeFragmentSwitcher implements NodeSwitcher<Fragment> {
         }
     }
 
+    private void execute(@NonNull Fragment fragment, @NonNull String tag, @Router.Direction int how,
+            boolean now, boolean optimize) {
+        FragmentActivity context = contextR.get();
+        if (context == null) {
+            return;
+        }
+
+        FragmentTransaction transaction = context.getSupportFragmentManager().beginTransaction();
+
+        switch (how) {
+            case Router.DIRECTION_FORWARD:
+                transaction.setCustomAnimations(R.anim.enter_from_right, R.anim.exit_to_left);
+                break;
+            case Router.DIRECTION_BACKWARD:
+                transaction.setCustomAnimations(R.anim.enter_from_left, R.anim.exit_to_right);
+                break;
+            // By default dont add anything
+        }
+
+        if (optimize) {
+            // Let the manager skip intermediate states when transactions are executed together. It
+            // changes the order of the lifecycle callbacks, so only batched commits opt in
+            transaction.setAllowOptimization(true);
+        }
+        transaction.replace(resId, fragment, tag);
+
+        if (now) {
+            transaction.commitNow();
+        } else {
+            transaction.commit();
+        }
+    }
+
+    private void flush() {
+        handler.removeCallbacks(flushPending);
+
+        Fragment fragment = pendingFragment;
+        String tag = pendingTag;
+        pendingFragment = null;
+        pendingTag = null;
+
+        if (fragment != null && tag != null) {
+            execute(fragment, tag, pendingHow, false, true);
+        }
+    }
+
     @Nullable
     @Override
     public Fragment commit(@NonNull final Class<?> clazz, @Router.Direction final int how, final long identifier) {
         findTypeOrThrow(clazz);
 
-        Fragment fragment = createFragment(clazz, identifier);
+        String tag = String.valueOf(identifier);
+        Fragment fragment = createFragment(clazz, identifier, tag);
         if (fragment != null) {
-            FragmentActivity context = contextR.get();
-
-            FragmentTransaction transaction = context.getSupportFragmentManager().beginTransaction();
+            if (batching && !commitNow) {
+                if (pendingFragment == null) {
+                    handler.post(flushPending);
+                }
+                // Replaces the previous one, which will never be attached
+                pendingFragment = fragment;
+                pendingTag = tag;
+                pendingHow = how;
+            } else {
+                // Anything pending is outdated by this commit
+                pendingFragment = null;
+                pendingTag = null;
+                handler.removeCallbacks(flushPending);
 
-            switch (how) {
-                case Router.DIRECTION_FORWARD:
-                    transaction.setCustomAnimations(R.anim.enter_from_right, R.anim.exit_to_left);
-                    break;
-                case Router.DIRECTION_BACKWARD:
-                    transaction.setCustomAnimations(R.anim.enter_from_left, R.anim.exit_to_right);
-                    break;
-                // By default dont add anything
+                execute(fragment, tag, how, commitNow, false);
             }
-
-            transaction.replace(resId, fragment, String.valueOf(identifier));
-            transaction.commit();
         }
 
         return fragment;
@@ -85,7 +202,29 @@ public class NodeFragmentSwitcher implements NodeSwitcher<Fragment> {
 
     @Override
     public void clearAll() {
-        // Nothing to do..
+        prefetched.clear();
+    }
+
+    @Override
+    public void skip(@NonNull Class<?> clazz, @Router.Direction int how, long identifier) {
+        // Nothing to track, the backstack only has the commited nodes
+    }
+
+    /**
+     * Instantiates the fragment ahead of its commit. Its view is created once commited.
+     */
+    @Override
+    public void prefetch(@NonNull Class<?> clazz, long identifier) {
+        FragmentActivity context = contextR.get();
+        if (context != null && prefetched.get(identifier) == null) {
+            findTypeOrThrow(clazz);
+            prefetched.put(identifier, Fragment.instantiate(context, clazz.getName()));
+        }
+    }
+
+    @Override
+    public void cancelPrefetch(long identifier) {
+        prefetched.remove(identifier);
     }
 
 }
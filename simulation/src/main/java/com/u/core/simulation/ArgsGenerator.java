@@ -0,0 +1,23 @@
+package com.u.core.simulation;
+
+import android.support.annotation.NonNull;
+import com.u.core.FlowArgs;
+import com.u.core.node.Node;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates the args for moving forward from a node in a simulation.
+ */
+public interface ArgsGenerator {
+
+    /**
+     * @param current node of the flow
+     * @param outgoingEdges of the current node, never empty
+     * @param random source of randomness of the simulation, so runs with the same seed are repeated
+     * @return args for moving forward
+     */
+    @NonNull
+    FlowArgs generate(@NonNull Node current, @NonNull List<Node> outgoingEdges, @NonNull Random random);
+
+}
@@ -0,0 +1,59 @@
+package com.u.core.simulation;
+
+import android.support.annotation.NonNull;
+import com.u.core.FlowArgs;
+import com.u.core.MapArgs;
+import com.u.core.node.ConditionSelector;
+import com.u.core.node.Node;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Args generator that picks one of the outgoing edges at random and, if it uses a
+ * {@link ConditionSelector}, generates a value fulfilling it. Edges with other selectors get
+ * empty args, so graphs using them should provide their own generator.
+ */
+public final class ConditionArgsGenerator implements ArgsGenerator {
+
+    @NonNull
+    @Override
+    public FlowArgs generate(@NonNull Node current, @NonNull List<Node> outgoingEdges, @NonNull Random random) {
+        MapArgs args = new MapArgs();
+
+        Node edge = outgoingEdges.get(random.nextInt(outgoingEdges.size()));
+        if (edge.getSelector() instanceof ConditionSelector) {
+            ConditionSelector condition = (ConditionSelector) edge.getSelector();
+            if (condition.getKind() == ConditionSelector.KIND_STRING) {
+                args.put(condition.getKey(), condition.getValue());
+            } else {
+                args.put(condition.getKey(), valueOf(condition));
+            }
+        }
+        return args;
+    }
+
+    /**
+     * @return a number fulfilling the condition, preferring finite ones
+     */
+    private static double valueOf(@NonNull ConditionSelector condition) {
+        double lower = condition.getLower();
+        double upper = condition.getUpper();
+
+        double inside;
+        if (Double.isInfinite(lower) && Double.isInfinite(upper)) {
+            inside = 0;
+        } else if (Double.isInfinite(lower)) {
+            inside = upper - Math.max(1, Math.abs(upper));
+        } else if (Double.isInfinite(upper)) {
+            inside = lower + Math.max(1, Math.abs(lower));
+        } else {
+            inside = lower / 2 + upper / 2;
+        }
+
+        if (condition.matches(inside)) {
+            return inside;
+        }
+        return condition.matches(lower) ? lower : upper;
+    }
+
+}
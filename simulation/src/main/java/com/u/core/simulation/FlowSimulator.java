@@ -0,0 +1,432 @@
+package com.u.core.simulation;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import com.u.core.FlowArgs;
+import com.u.core.Router;
+import com.u.core.graph.DecisionTable;
+import com.u.core.graph.Graph;
+import com.u.core.node.Node;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+
+/**
+ * Runs a {@link Router} over a graph without rendering anything, through random or scripted
+ * moves, and reports how it behaved. Useful for validating a flow (eg. in CI) and for measuring
+ * the cost of moving through it.
+ *
+ * Eg:
+ * <pre>
+ *     SimulationReport report = FlowSimulator.create()
+ *         .with(graph)
+ *         .seed(42)
+ *         .build()
+ *         .run(100000);
+ * </pre>
+ *
+ * Random runs start from the root, and when the flow ends (or no edge is selected) start again.
+ * Runs with the same seed do the same moves.
+ */
+public final class FlowSimulator {
+
+    private final @NonNull Graph graph;
+    private final @NonNull ArgsGenerator argsGenerator;
+    private final long seed;
+    private final float backRatio;
+    private final float jumpRatio;
+
+    FlowSimulator(@NonNull Builder builder) {
+        this.graph = builder.graph.freeze();
+        this.argsGenerator = builder.argsGenerator;
+        this.seed = builder.seed;
+        this.backRatio = builder.backRatio;
+        this.jumpRatio = builder.jumpRatio;
+
+        if (graph.getRoot() == null) {
+            throw new IllegalStateException("Simulating an empty graph is meaningless, please provide a non empty graph");
+        }
+    }
+
+    /**
+     * Run the given amount of random moves
+     * @param transitions amount of moves
+     * @return report of the run
+     */
+    @NonNull
+    public SimulationReport run(int transitions) {
+        Router<Class<?>> router = newRouter();
+        Random random = new Random(seed);
+        Recorder recorder = new Recorder();
+
+        router.fromRoot();
+        recorder.start(router);
+        for (int i = 0; i < transitions; i++) {
+            recorder.onMove(randomMove(router, random, recorder), router);
+        }
+        recorder.stop();
+
+        return recorder.report(transitions);
+    }
+
+    /**
+     * Run the given moves, starting from the root
+     * @param script moves to do in order
+     * @return report of the run
+     */
+    @NonNull
+    public SimulationReport run(@NonNull List<Step> script) {
+        Router<Class<?>> router = newRouter();
+        Recorder recorder = new Recorder();
+
+        router.fromRoot();
+        recorder.start(router);
+        for (Step step : script) {
+            recorder.onMove(step.apply(router), router);
+        }
+        recorder.stop();
+
+        return recorder.report(script.size());
+    }
+
+    /**
+     * Nodes that no move forward can ever reach from the root, because the edges before theirs take
+     * every value they select (see {@link DecisionTable}). Opaque selectors are assumed to select
+     * sometimes.
+     * @return unreachable nodes
+     */
+    @NonNull
+    public List<Node> getUnreachableNodes() {
+        BitSet reached = new BitSet(graph.size());
+        Queue<Integer> pending = new LinkedList<>();
+
+        int root = graph.indexOf(graph.getRoot());
+        reached.set(root);
+        pending.add(root);
+
+        while (!pending.isEmpty()) {
+            int index = pending.poll();
+            List<Node> outgoingEdges = graph.getOutgoingEdges(index);
+            if (outgoingEdges == null) {
+                continue;
+            }
+
+            DecisionTable table = graph.getDecisionTable(index);
+            for (int position = 0; position < outgoingEdges.size(); position++) {
+                int to = graph.getOutgoingEdgeIndex(index, position);
+                if (!reached.get(to) && (table == null || table.canSelect(position))) {
+                    reached.set(to);
+                    pending.add(to);
+                }
+            }
+        }
+
+        return nodesNotIn(reached);
+    }
+
+    @NonNull
+    private Router<Class<?>> newRouter() {
+        return Router.<Class<?>>create()
+            .with(graph)
+            .switcher(new HeadlessNodeSwitcher())
+            .build();
+    }
+
+    @Nullable
+    private Class<?> randomMove(@NonNull Router<Class<?>> router, @NonNull Random random,
+            @NonNull Recorder recorder) {
+        float dice = random.nextFloat();
+
+        if (dice < backRatio && router.getDepth() > 1) {
+            return router.back();
+        }
+
+        if (dice < backRatio + jumpRatio) {
+            // Jump only to visited nodes, so jumps dont hide the ones the flow never reaches
+            return router.jump(graph.getNodeAt(recorder.randomVisited(random)));
+        }
+
+        Node current = router.getCurrentNode();
+        List<Node> outgoingEdges = graph.getOutgoingEdges(current);
+        if (outgoingEdges == null || outgoingEdges.isEmpty()) {
+            return router.fromRoot();
+        }
+
+        Class<?> commited = router.next(argsGenerator.generate(current, outgoingEdges, random));
+        if (commited == null) {
+            recorder.onStuck();
+            return router.fromRoot();
+        }
+        return commited;
+    }
+
+    @NonNull
+    private List<Node> nodesNotIn(@NonNull BitSet indexes) {
+        List<Node> nodes = new ArrayList<>();
+        for (int index = indexes.nextClearBit(0); index < graph.size(); index = indexes.nextClearBit(index + 1)) {
+            nodes.add(graph.getNodeAt(index));
+        }
+        return Collections.unmodifiableList(nodes);
+    }
+
+    /**
+     * @return bytes allocated by the current thread so far, or -1 if the vm cant tell
+     */
+    private static long allocatedBytes() {
+        try {
+            ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        } catch (LinkageError | UnsupportedOperationException e) {
+            // Not a hotspot vm (eg. android)
+        }
+        return -1;
+    }
+
+    /**
+     * Creates a builder for simulators
+     * @return builder instance
+     */
+    public static @NonNull Builder create() {
+        return new Builder();
+    }
+
+    /**
+     * Collects the measures of a run. Preallocated, so it doesnt count in the allocations of the moves
+     */
+    private final class Recorder {
+
+        private final @NonNull BitSet visited;
+        private final @NonNull int[] visitedIndexes;
+        private int visitedCount;
+
+        private @NonNull int[] depths;
+        private int stuck;
+        private int failed;
+
+        private long startNanos;
+        private long startBytes;
+        private long elapsedNanos;
+        private long allocated;
+
+        Recorder() {
+            this.visited = new BitSet(graph.size());
+            this.visitedIndexes = new int[graph.size()];
+            this.depths = new int[graph.size() + 1];
+        }
+
+        void start(@NonNull Router<Class<?>> router) {
+            visit(router.getCurrentNode());
+            startBytes = allocatedBytes();
+            startNanos = System.nanoTime();
+        }
+
+        void stop() {
+            elapsedNanos = System.nanoTime() - startNanos;
+            long bytes = allocatedBytes();
+            allocated = startBytes < 0 || bytes < 0 ? -1 : bytes - startBytes;
+        }
+
+        void onStuck() {
+            stuck++;
+        }
+
+        void onMove(@Nullable Class<?> commited, @NonNull Router<Class<?>> router) {
+            if (commited == null) {
+                failed++;
+            }
+
+            int depth = router.getDepth();
+            if (depth >= depths.length) {
+                int[] grown = new int[Math.max(depth + 1, depths.length * 2)];
+                System.arraycopy(depths, 0, grown, 0, depths.length);
+                depths = grown;
+            }
+            depths[depth]++;
+
+            visit(router.getCurrentNode());
+        }
+
+        private void visit(@Nullable Node current) {
+            if (current != null) {
+                int index = graph.indexOf(current);
+                if (!visited.get(index)) {
+                    visited.set(index);
+                    visitedIndexes[visitedCount++] = index;
+                }
+            }
+        }
+
+        int randomVisited(@NonNull Random random) {
+            return visitedIndexes[random.nextInt(visitedCount)];
+        }
+
+        @NonNull
+        SimulationReport report(int transitions) {
+            int maxDepth = depths.length - 1;
+            while (maxDepth > 0 && depths[maxDepth] == 0) {
+                maxDepth--;
+            }
+            int[] distribution = new int[maxDepth + 1];
+            System.arraycopy(depths, 0, distribution, 0, distribution.length);
+
+            return new SimulationReport(transitions, elapsedNanos, allocated, failed, stuck,
+                distribution, nodesNotIn(visited), getUnreachableNodes());
+        }
+
+    }
+
+    /**
+     * A move of a scripted run
+     */
+    public abstract static class Step {
+
+        Step() {
+            // Only the factories create steps
+        }
+
+        /**
+         * @param args for selecting the next node
+         * @return step moving forward, see {@link Router#next(FlowArgs)}
+         */
+        public static @NonNull Step next(@NonNull final FlowArgs args) {
+            return new Step() {
+                @Nullable
+                @Override
+                Class<?> apply(@NonNull Router<Class<?>> router) {
+                    return router.next(args);
+                }
+            };
+        }
+
+        /**
+         * @return step moving backwards, see {@link Router#back()}
+         */
+        public static @NonNull Step back() {
+            return new Step() {
+                @Nullable
+                @Override
+                Class<?> apply(@NonNull Router<Class<?>> router) {
+                    return router.back();
+                }
+            };
+        }
+
+        /**
+         * @param tag of the node to jump to
+         * @return step jumping, see {@link Router#jump(String)}
+         */
+        public static @NonNull Step jump(@NonNull final String tag) {
+            return new Step() {
+                @Nullable
+                @Override
+                Class<?> apply(@NonNull Router<Class<?>> router) {
+                    return router.jump(tag);
+                }
+            };
+        }
+
+        /**
+         * @param router to move
+         * @return commited render object, or null if nothing was commited
+         */
+        @Nullable
+        abstract Class<?> apply(@NonNull Router<Class<?>> router);
+
+    }
+
+    /**
+     * Static inner class for creating simulators
+     */
+    public static class Builder {
+
+        private Graph graph;
+        private ArgsGenerator argsGenerator;
+        private long seed;
+        private float backRatio;
+        private float jumpRatio;
+
+        /**
+         * Constructor.
+         */
+        public Builder() {
+            this.argsGenerator = new ConditionArgsGenerator();
+            this.backRatio = 0.2f;
+            this.jumpRatio = 0.05f;
+        }
+
+        /**
+         * Graph to simulate. Its frozen, so later changes to it dont affect the simulator
+         * @param graph graph
+         * @return builder instance
+         */
+        public @NonNull Builder with(@NonNull Graph graph) {
+            this.graph = graph;
+            return this;
+        }
+
+        /**
+         * Generator of the args of random moves forward. Defaults to {@link ConditionArgsGenerator}
+         * @param argsGenerator generator
+         * @return builder instance
+         */
+        public @NonNull Builder args(@NonNull ArgsGenerator argsGenerator) {
+            this.argsGenerator = argsGenerator;
+            return this;
+        }
+
+        /**
+         * Seed of the random moves. Defaults to 0
+         * @param seed seed
+         * @return builder instance
+         */
+        public @NonNull Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Chance of a random move going back. Defaults to 0.2
+         * @param backRatio between 0 and 1
+         * @return builder instance
+         */
+        public @NonNull Builder backRatio(float backRatio) {
+            this.backRatio = backRatio;
+            return this;
+        }
+
+        /**
+         * Chance of a random move jumping to an already visited node. Defaults to 0.05
+         * @param jumpRatio between 0 and 1
+         * @return builder instance
+         */
+        public @NonNull Builder jumpRatio(float jumpRatio) {
+            this.jumpRatio = jumpRatio;
+            return this;
+        }
+
+        /**
+         * Create a new simulator from the provided parameters
+         * @return simulator instance
+         */
+        public @NonNull FlowSimulator build() {
+            if (graph == null) {
+                throw new IllegalStateException("Missing parameters for constructing a stable simulator");
+            }
+            if (backRatio < 0 || jumpRatio < 0 || backRatio + jumpRatio > 1) {
+                throw new IllegalStateException("Back and jump ratios must be between 0 and 1, and add up to 1 at most");
+            }
+
+            return new FlowSimulator(this);
+        }
+
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.u.core.simulation;
+
+import android.support.annotation.NonNull;
+import com.u.core.Router;
+import com.u.core.node.NodeSwitcher;
+
+/**
+ * Node switcher that renders nothing, for running a router without a UI (eg. in simulations,
+ * benchmarks or tests). The render object of a node is its descriptor class, so commits are never
+ * taken as failed.
+ */
+public final class HeadlessNodeSwitcher implements NodeSwitcher<Class<?>> {
+
+    @NonNull
+    @Override
+    public Class<?> commit(@NonNull Class<?> clazz, @Router.Direction int how, long identifier) {
+        return clazz;
+    }
+
+    @Override
+    public void clearAll() {
+        // Nothing rendered
+    }
+
+    @Override
+    public void skip(@NonNull Class<?> clazz, @Router.Direction int how, long identifier) {
+        // Nothing rendered
+    }
+
+    @Override
+    public void prefetch(@NonNull Class<?> clazz, long identifier) {
+        // Nothing to prepare
+    }
+
+    @Override
+    public void cancelPrefetch(long identifier) {
+        // Nothing prepared
+    }
+
+}
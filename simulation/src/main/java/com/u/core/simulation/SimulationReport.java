@@ -0,0 +1,134 @@
+package com.u.core.simulation;
+
+import android.support.annotation.NonNull;
+import com.u.core.node.Node;
+import java.util.List;
+
+/**
+ * Results of a {@link FlowSimulator} run
+ */
+public final class SimulationReport {
+
+    private final int transitions;
+    private final long elapsedNanos;
+    private final long allocatedBytes;
+    private final int failedMoves;
+    private final int stuckMoves;
+    private final @NonNull int[] depthDistribution;
+    private final @NonNull List<Node> unvisitedNodes;
+    private final @NonNull List<Node> unreachableNodes;
+
+    SimulationReport(int transitions, long elapsedNanos, long allocatedBytes, int failedMoves,
+            int stuckMoves, @NonNull int[] depthDistribution, @NonNull List<Node> unvisitedNodes,
+            @NonNull List<Node> unreachableNodes) {
+        this.transitions = transitions;
+        this.elapsedNanos = elapsedNanos;
+        this.allocatedBytes = allocatedBytes;
+        this.failedMoves = failedMoves;
+        this.stuckMoves = stuckMoves;
+        this.depthDistribution = depthDistribution;
+        this.unvisitedNodes = unvisitedNodes;
+        this.unreachableNodes = unreachableNodes;
+    }
+
+    /**
+     * @return amount of moves done
+     */
+    public int getTransitions() {
+        return transitions;
+    }
+
+    /**
+     * @return time taken by the moves, in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return moves per second
+     */
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : transitions * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * @return bytes allocated per move, including the generated args, or -1 if the vm cant tell
+     */
+    public double getBytesPerTransition() {
+        if (allocatedBytes < 0) {
+            return -1;
+        }
+        return transitions == 0 ? 0 : (double) allocatedBytes / transitions;
+    }
+
+    /**
+     * @return moves that didnt commit a node (eg. going back from the root, or no edge selected)
+     */
+    public int getFailedMoves() {
+        return failedMoves;
+    }
+
+    /**
+     * @return random moves forward in which no edge selected the generated args
+     */
+    public int getStuckMoves() {
+        return stuckMoves;
+    }
+
+    /**
+     * @return amount of moves that left the decision stack at each depth, indexed by depth
+     */
+    @NonNull
+    public int[] getDepthDistribution() {
+        return depthDistribution.clone();
+    }
+
+    /**
+     * @return nodes never commited during the run
+     */
+    @NonNull
+    public List<Node> getUnvisitedNodes() {
+        return unvisitedNodes;
+    }
+
+    /**
+     * @return nodes that can never be reached from the root, see {@link FlowSimulator#getUnreachableNodes()}
+     */
+    @NonNull
+    public List<Node> getUnreachableNodes() {
+        return unreachableNodes;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder()
+            .append("transitions: ").append(transitions)
+            .append(String.format(" (%.0f/s", getThroughput()))
+            .append(String.format(", %.1f bytes each)", getBytesPerTransition()))
+            .append("\nfailed: ").append(failedMoves)
+            .append(", stuck: ").append(stuckMoves)
+            .append("\ndepths:");
+        for (int depth = 1; depth < depthDistribution.length; depth++) {
+            builder.append(' ').append(depth).append('=').append(depthDistribution[depth]);
+        }
+        return builder
+            .append("\nunvisited: ").append(nameOf(unvisitedNodes))
+            .append("\nunreachable: ").append(nameOf(unreachableNodes))
+            .toString();
+    }
+
+    @NonNull
+    private static String nameOf(@NonNull List<Node> nodes) {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < nodes.size(); i++) {
+            Node node = nodes.get(i);
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(node.getTag() != null ? node.getTag() : node.getDescriptor().getSimpleName());
+        }
+        return builder.append(']').toString();
+    }
+
+}
@@ -0,0 +1,108 @@
+package com.u.core.simulation;
+
+import com.u.core.FlowArgs;
+import com.u.core.MapArgs;
+import com.u.core.graph.DirectedAcyclicGraph;
+import com.u.core.graph.Graph;
+import com.u.core.node.ConditionSelector;
+import com.u.core.node.Node;
+import com.u.core.node.NodeSelector;
+import java.util.Arrays;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FlowSimulatorTest {
+
+    private static final NodeSelector ALWAYS = new NodeSelector() {
+        @Override
+        public boolean select(FlowArgs args) {
+            return true;
+        }
+    };
+
+    private static Node node(String tag, NodeSelector selector) {
+        return Node.create()
+            .descriptor(Object.class)
+            .tag(tag)
+            .selector(selector)
+            .build();
+    }
+
+    /**
+     * <pre>
+     * root -> minor -> end
+     *     \_> kid
+     *     \_> adult _/
+     * </pre>
+     * Kid is shadowed by minor, which comes first and selects every age kid does.
+     */
+    private static Graph graph() {
+        Graph graph = new DirectedAcyclicGraph();
+        Node root = node("root", ALWAYS);
+        Node minor = node("minor", ConditionSelector.lessThan("age", 18));
+        Node kid = node("kid", ConditionSelector.lessThan("age", 10));
+        Node adult = node("adult", ConditionSelector.atLeast("age", 18));
+        Node end = node("end", ALWAYS);
+        for (Node node : new Node[] { root, minor, kid, adult, end }) {
+            graph.add(node);
+        }
+        graph.connect(root, minor);
+        graph.connect(root, kid);
+        graph.connect(root, adult);
+        graph.connect(minor, end);
+        graph.connect(adult, end);
+        return graph;
+    }
+
+    @Test
+    public void findsTheUnreachableNodes() {
+        Graph graph = graph();
+
+        SimulationReport report = FlowSimulator.create()
+            .with(graph)
+            .seed(42)
+            .build()
+            .run(1000);
+
+        assertEquals(1000, report.getTransitions());
+        assertEquals(Arrays.asList(graph.getNodeByTag("kid")), report.getUnreachableNodes());
+        assertTrue(report.getUnvisitedNodes().contains(graph.getNodeByTag("kid")));
+        assertFalse(report.getUnvisitedNodes().contains(graph.getNodeByTag("end")));
+    }
+
+    @Test
+    public void sameSeedSameReport() {
+        FlowSimulator.Builder builder = FlowSimulator.create()
+            .with(graph())
+            .seed(7);
+
+        SimulationReport first = builder.build().run(500);
+        SimulationReport second = builder.build().run(500);
+
+        assertEquals(first.getFailedMoves(), second.getFailedMoves());
+        assertEquals(first.getStuckMoves(), second.getStuckMoves());
+        assertTrue(Arrays.equals(first.getDepthDistribution(), second.getDepthDistribution()));
+    }
+
+    @Test
+    public void runsAScript() {
+        Graph graph = graph();
+        SimulationReport report = FlowSimulator.create()
+            .with(graph)
+            .build()
+            .run(Arrays.asList(
+                FlowSimulator.Step.next(new MapArgs().put("age", 20)),
+                FlowSimulator.Step.next(new MapArgs()),
+                FlowSimulator.Step.back(),
+                FlowSimulator.Step.back(),
+                FlowSimulator.Step.back(),
+                FlowSimulator.Step.jump("kid")));
+
+        assertEquals(6, report.getTransitions());
+        // Going back from the root doesnt move
+        assertEquals(1, report.getFailedMoves() + report.getStuckMoves());
+        assertTrue(report.getUnvisitedNodes().contains(graph.getNodeByTag("minor")));
+    }
+
+}
@@ -15,12 +15,13 @@ import android.widget.EditText;
 import android.widget.FrameLayout;
 import android.widget.ImageView;
 import android.widget.TextView;
+import com.u.core.BundleArgs;
+import com.u.core.FlowArgs;
 import com.u.core.Router;
 import com.u.core.graph.DirectedAcyclicGraph;
 import com.u.core.graph.Graph;
 import com.u.core.node.Node;
 import com.u.core.node.NodeSelector;
-import com.u.core.node.NodeSwitcher;
 import com.u.direction_acyclic_graph.R;
 import com.u.views.NodeViewSwitcher;
 
@@ -31,6 +32,7 @@ import com.u.views.NodeViewSwitcher;
 public class ViewsActivity extends Activity implements Router.OnNodeCommitListener<View> {
 
     Router<View> router;
+    NodeViewSwitcher nodeSwitcher;
 
     @Override
     protected void onCreate(@Nullable final Bundle savedInstanceState) {
@@ -45,10 +47,15 @@ public class ViewsActivity extends Activity implements Router.OnNodeCommitListen
     }
 
     private void applyTo(@NonNull ViewGroup viewGroup) {
-        NodeSwitcher<View> nodeSwitcher = new NodeViewSwitcher(this, viewGroup.getId());
+        Graph graph = buildGraph();
+        // Resolve upfront how each node view is created, so it isnt done while navigating
+        nodeSwitcher = new NodeViewSwitcher(this, viewGroup.getId())
+            .prepare(graph);
+        // So cached views are released when the system is low on memory
+        registerComponentCallbacks(nodeSwitcher);
 
         router = Router.<View>create()
-            .with(buildGraph())
+            .with(graph)
             .switcher(nodeSwitcher)
             .build();
 
@@ -71,7 +78,7 @@ public class ViewsActivity extends Activity implements Router.OnNodeCommitListen
                  */
                 Bundle args = new Bundle();
                 args.putString("age", s.toString());
-                router.next(args); // We could here use also the result and hook again and again and like that.
+                router.next(new BundleArgs(args)); // We could here use also the result and hook again and again and like that.
             }
 
             @Override
@@ -91,6 +98,12 @@ public class ViewsActivity extends Activity implements Router.OnNodeCommitListen
         router.removeOnNodeCommitListener(this);
     }
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        unregisterComponentCallbacks(nodeSwitcher);
+    }
+
     @Override
     public void onBackPressed() {
         // We handle back presses to move the graph for this case
@@ -131,7 +144,7 @@ public class ViewsActivity extends Activity implements Router.OnNodeCommitListen
                 @SuppressWarnings("CheckResult")
                 @Override
                 public void onClick(final View v) {
-                    router.next(new Bundle());
+                    router.next(new BundleArgs(new Bundle()));
                 }
             });
         }
@@ -144,7 +157,7 @@ public class ViewsActivity extends Activity implements Router.OnNodeCommitListen
         // Create a node with a custom view that sets its stuff
         Node start = new Node(CustomView1.class, new NodeSelector() {
             @Override
-            public boolean select(@Nullable final Bundle args) {
+            public boolean select(@Nullable final FlowArgs args) {
                 return true; // Always pick it, its the root.
             }
         });
@@ -152,28 +165,34 @@ public class ViewsActivity extends Activity implements Router.OnNodeCommitListen
         // Another one the same as the start but with a selector that uses arguments for deciding
         Node minor = new Node(CustomView2.class, new NodeSelector() {
             @Override
-            public boolean select(@Nullable final Bundle args) {
-                return Integer.valueOf(args.getString("age")) < 18;
+            public boolean select(@Nullable final FlowArgs args) {
+                return Integer.valueOf((String) args.get("age")) < 18;
             }
         });
 
         // This one is a normal image view but will be configured when selected from outside the view.
-        Node grownUp = new Node(ImageView.class, new NodeSelector() {
-            @Override
-            public boolean select(@Nullable final Bundle args) {
-                return Integer.valueOf(args.getString("age")) >= 18;
-            }
-        });
-        grownUp.tag("TAG_GROWNUP");
+        Node grownUp = Node.create()
+            .descriptor(ImageView.class)
+            .selector(new NodeSelector() {
+                @Override
+                public boolean select(@Nullable final FlowArgs args) {
+                    return Integer.valueOf((String) args.get("age")) >= 18;
+                }
+            })
+            .tag("TAG_GROWNUP")
+            .build();
 
         // Same as before
-        Node end = new Node(TextView.class, new NodeSelector() {
-            @Override
-            public boolean select(@Nullable final Bundle args) {
-                return true; // Both conclude here
-            }
-        });
-        end.tag("TAG_END");
+        Node end = Node.create()
+            .descriptor(TextView.class)
+            .selector(new NodeSelector() {
+                @Override
+                public boolean select(@Nullable final FlowArgs args) {
+                    return true; // Both conclude here
+                }
+            })
+            .tag("TAG_END")
+            .build();
 
         // Add the nodes to the graph, the order doesnt mind, when connected the shape will be formed.
         graph.add(grownUp);
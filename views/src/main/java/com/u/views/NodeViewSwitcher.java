@@ -3,13 +3,20 @@ package com.u.views;
 import android.animation.Animator;
 import android.app.Activity;
 import android.content.ActivityNotFoundException;
+import android.content.ComponentCallbacks2;
 import android.content.Context;
+import android.content.res.Configuration;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.MessageQueue;
 import android.support.annotation.IdRes;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
+import android.support.v4.util.LongSparseArray;
 import android.view.View;
 import android.view.ViewGroup;
 import com.u.core.Router;
+import com.u.core.graph.Graph;
 import com.u.core.node.NodeSwitcher;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.Constructor;
@@ -18,22 +25,103 @@ import java.util.Map;
 
 /**
  * Created by saguilera on 6/10/17.
+ *
+ * <p>Created views are cached, see {@link #NodeViewSwitcher(Activity, int, int)}. The cache is only
+ * trimmed when the system is low on memory if this instance receives the memory callbacks. Register it
+ * with {@link Context#registerComponentCallbacks(android.content.ComponentCallbacks)} (and unregister it
+ * when the activity is destroyed), or forward the activity {@link #onTrimMemory(int)} calls.</p>
  */
-public class NodeViewSwitcher implements NodeSwitcher<View> {
+public class NodeViewSwitcher implements NodeSwitcher<View>, ComponentCallbacks2 {
+
+    public static final int DEFAULT_MAX_CACHED_VIEWS = 8;
 
     private @NonNull WeakReference<Activity> contextR;
     private @IdRes int resId;
 
     /**
      * Since only one of the views is visible at a time, we keep them in memory so the state isnt lost.
-     * This shouldnt affect memory, unless you load your view with all the bussiness logic and such
+     * The cache is bounded, but views of the nodes in the backstack are always kept.
+     */
+    private @NonNull ViewCache views;
+
+    /**
+     * Factories for each class already validated. Classes without a registered factory get a
+     * reflective one, resolved only once.
+     */
+    private @NonNull Map<Class<?>, ViewFactory> factories;
+
+    /**
+     * Views to create ahead of their commit, when the main thread is idle
+     */
+    private @NonNull LongSparseArray<Class<?>> prefetches;
+    private boolean prefetchScheduled;
+
+    private final @NonNull MessageQueue.IdleHandler prefetchHandler = new MessageQueue.IdleHandler() {
+        @Override
+        public boolean queueIdle() {
+            prefetchNext();
+            prefetchScheduled = prefetches.size() > 0;
+            return prefetchScheduled;
+        }
+    };
+
+    /**
+     * Idle handlers are registered in the main thread, prefetches can be asked from threads without
+     * a looper (eg. the writer of a {@link com.u.core.ConcurrentRouter})
      */
-    private @NonNull Map<Long, View> views;
+    private final @NonNull Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final @NonNull Runnable prefetchScheduler = new Runnable() {
+        @Override
+        public void run() {
+            Looper.myQueue().addIdleHandler(prefetchHandler);
+        }
+    };
 
     public NodeViewSwitcher(@NonNull Activity context, @IdRes int resId) {
+        this(context, resId, DEFAULT_MAX_CACHED_VIEWS);
+    }
+
+    /**
+     * Constructor
+     * @param context activity containing the view group
+     * @param resId of the view group in which the views are commited
+     * @param maxCachedViews amount of views to keep in memory besides the ones of the nodes in the
+     *                       backstack, which are never released
+     */
+    public NodeViewSwitcher(@NonNull Activity context, @IdRes int resId, int maxCachedViews) {
         this.contextR = new WeakReference<>(context);
         this.resId = resId;
-        this.views = new HashMap<>();
+        this.views = new ViewCache(maxCachedViews);
+        this.factories = new HashMap<>();
+        this.prefetches = new LongSparseArray<>();
+    }
+
+    /**
+     * Register a factory for creating the views of a node class, instead of calling its
+     * <init>(Context) constructor reflectively.
+     *
+     * @param clazz of the node
+     * @param factory that creates the views
+     * @return switcher instance
+     */
+    public @NonNull NodeViewSwitcher register(@NonNull Class<? extends View> clazz, @NonNull ViewFactory factory) {
+        factories.put(clazz, factory);
+        return this;
+    }
+
+    /**
+     * Validate and resolve upfront how to create the views of every node in the graph, so
+     * it isnt done while committing them. This will throw {@link IllegalStateException} if a
+     * node class isnt a view or cant be created.
+     *
+     * @param graph whose nodes will be committed by this switcher
+     * @return switcher instance
+     */
+    public @NonNull NodeViewSwitcher prepare(@NonNull Graph graph) {
+        for (int i = 0, size = graph.size(); i < size; i++) {
+            getFactory(graph.getNodeAt(i).getDescriptor());
+        }
+        return this;
     }
 
     private void findTypeOrThrow(@NonNull Class<?> clazz) {
@@ -45,14 +133,32 @@ public class NodeViewSwitcher implements NodeSwitcher<View> {
         }
     }
 
+    private @NonNull ViewFactory getFactory(@NonNull Class<?> clazz) {
+        ViewFactory factory = factories.get(clazz);
+        if (factory == null) {
+            findTypeOrThrow(clazz);
+
+            try {
+                factory = new ReflectiveViewFactory(clazz.getConstructor(Context.class));
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException(
+                    "View constructor for node class doesnt exist. Please provide <init>(Context) constructor.", e);
+            }
+
+            factories.put(clazz, factory);
+        }
+        return factory;
+    }
+
     private @Nullable ViewGroup getParent() {
         return contextR.get() == null ? null : (ViewGroup) contextR.get().findViewById(resId);
     }
 
     private @Nullable View createView(Class<?> clazz, long identifier) {
-        if (views.get(identifier) != null) {
+        View cached = views.get(identifier);
+        if (cached != null) {
             // If the view was already created, return it!
-            return views.get(identifier);
+            return cached;
         }
 
         try {
@@ -62,17 +168,13 @@ public class NodeViewSwitcher implements NodeSwitcher<View> {
                 throw new ActivityNotFoundException("Activity has been removed, so this will be removed too");
             }
 
-            Constructor constructor = clazz.getConstructor(Context.class);
-            View view = (View) constructor.newInstance(contextR.get());
+            View view = getFactory(clazz).create(context);
 
             views.put(identifier, view);
             return view;
         } catch (ActivityNotFoundException ex) {
             // Silent, we are not existing anymore
             return null;
-        } catch (Exception e) {
-            throw new RuntimeException(
-                "View constructor for node class doesnt exist. Please provide <init>(Context) constructor.", e);
         }
     }
 
@@ -132,13 +234,144 @@ public class NodeViewSwitcher implements NodeSwitcher<View> {
     }
 
     public @Nullable View commit(@NonNull Class<?> clazz, @Router.Direction int how, long identifier) {
-        findTypeOrThrow(clazz);
+        views.onCommit(identifier, how);
+        // Validated when resolving its factory
         return moveView(clazz, how, identifier);
     }
 
+    /**
+     * Keeps the node in the mirrored backstack, so its view isnt evicted while going back is possible
+     */
+    @Override
+    public void skip(@NonNull Class<?> clazz, @Router.Direction int how, long identifier) {
+        views.onCommit(identifier, how);
+    }
+
     @Override
     public void clearAll() {
         views.clear();
+        prefetches.clear();
+    }
+
+    /**
+     * Creates the view when the main thread is idle, and measures it off-screen with the size of
+     * the parent so its first layout is cheaper.
+     */
+    @Override
+    public void prefetch(@NonNull Class<?> clazz, long identifier) {
+        if (views.contains(identifier)) {
+            return;
+        }
+
+        prefetches.put(identifier, clazz);
+        if (!prefetchScheduled) {
+            prefetchScheduled = true;
+            if (Looper.myLooper() == Looper.getMainLooper()) {
+                prefetchScheduler.run();
+            } else {
+                mainHandler.post(prefetchScheduler);
+            }
+        }
+    }
+
+    @Override
+    public void cancelPrefetch(long identifier) {
+        prefetches.remove(identifier);
+        views.removePrefetched(identifier);
+    }
+
+    private void prefetchNext() {
+        if (prefetches.size() == 0) {
+            return;
+        }
+
+        long identifier = prefetches.keyAt(0);
+        Class<?> clazz = prefetches.valueAt(0);
+        prefetches.removeAt(0);
+
+        Context context = contextR.get();
+        if (context == null || views.contains(identifier)) {
+            return;
+        }
+
+        View view = getFactory(clazz).create(context);
+
+        ViewGroup parent = getParent();
+        if (parent != null && parent.getWidth() > 0) {
+            view.measure(
+                View.MeasureSpec.makeMeasureSpec(parent.getWidth(), View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(parent.getHeight(), View.MeasureSpec.EXACTLY));
+        }
+
+        views.putPrefetched(identifier, view);
+    }
+
+    /**
+     * Release cached views according to how much memory the system needs.
+     * Views of the nodes in the backstack are kept.
+     * @param level of the trim, see {@link ComponentCallbacks2}
+     */
+    @Override
+    public void onTrimMemory(int level) {
+        if (level >= TRIM_MEMORY_BACKGROUND || level == TRIM_MEMORY_RUNNING_CRITICAL) {
+            views.trimToSize(0);
+        } else if (level >= TRIM_MEMORY_RUNNING_LOW) {
+            views.trimToSize(views.maxSize() / 2);
+        }
+    }
+
+    @Override
+    public void onLowMemory() {
+        views.trimToSize(0);
+    }
+
+    @Override
+    public void onConfigurationChanged(Configuration newConfig) {
+        // Nothing to do..
+    }
+
+    /**
+     * @return times a commited view was already cached
+     */
+    public int hitCount() {
+        return views.hitCount();
+    }
+
+    /**
+     * @return times a commited view had to be created
+     */
+    public int missCount() {
+        return views.missCount();
+    }
+
+    /**
+     * @return views released because the cache was full or memory was trimmed
+     */
+    public int evictionCount() {
+        return views.evictionCount();
+    }
+
+    /**
+     * Factory that calls the <init>(Context) constructor of a view class.
+     */
+    private static class ReflectiveViewFactory implements ViewFactory {
+
+        private final @NonNull Constructor<?> constructor;
+
+        ReflectiveViewFactory(@NonNull Constructor<?> constructor) {
+            this.constructor = constructor;
+        }
+
+        @NonNull
+        @Override
+        public View create(@NonNull Context context) {
+            try {
+                return (View) constructor.newInstance(context);
+            } catch (Exception e) {
+                throw new RuntimeException("Couldnt create view of class: " + constructor.getDeclaringClass().getName(), e);
+            }
+        }
+
     }
 
 }
@@ -0,0 +1,201 @@
+package com.u.views;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v4.util.LongSparseArray;
+import android.view.View;
+import com.u.core.Router;
+import java.util.Arrays;
+
+/**
+ * Bounded cache of the views created for each node identifier.
+ *
+ * <p>When full, the least recently used view is evicted. Views of the nodes that are still in
+ * the router backstack are never evicted, so going back always restores their state. Since the
+ * switcher doesnt see the router, the backstack is mirrored from the direction of each commit and
+ * coalesced step.</p>
+ */
+final class ViewCache {
+
+    private final @NonNull LongSparseArray<Entry> entries;
+    private final int maxSize;
+
+    private @NonNull long[] backstack;
+    private int backstackSize;
+
+    private long clock;
+
+    private int hitCount;
+    private int missCount;
+    private int evictionCount;
+
+    ViewCache(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Max size cant be negative: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.entries = new LongSparseArray<>();
+        this.backstack = new long[8];
+    }
+
+    @Nullable
+    View get(long identifier) {
+        Entry entry = entries.get(identifier);
+        if (entry == null) {
+            missCount++;
+            return null;
+        }
+
+        hitCount++;
+        entry.lastUsed = ++clock;
+        entry.prefetched = false;
+        return entry.view;
+    }
+
+    boolean contains(long identifier) {
+        return entries.get(identifier) != null;
+    }
+
+    void put(long identifier, @NonNull View view) {
+        entries.put(identifier, newEntry(identifier, view));
+        trimToSize(maxSize);
+    }
+
+    /**
+     * Add a view that was created ahead of its commit
+     */
+    void putPrefetched(long identifier, @NonNull View view) {
+        Entry entry = newEntry(identifier, view);
+        entry.prefetched = true;
+        entries.put(identifier, entry);
+        trimToSize(maxSize);
+    }
+
+    @NonNull
+    private Entry newEntry(long identifier, @NonNull View view) {
+        Entry entry = new Entry(view, ++clock);
+        for (int i = 0; i < backstackSize; i++) {
+            if (backstack[i] == identifier) {
+                entry.pins++;
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Remove the view of the identifier only if it was prefetched and never used since
+     */
+    void removePrefetched(long identifier) {
+        Entry entry = entries.get(identifier);
+        if (entry != null && entry.prefetched) {
+            entries.remove(identifier);
+        }
+    }
+
+    /**
+     * Update the mirrored backstack with a commit of the router
+     * @param identifier of the commited node
+     * @param how it was commited
+     */
+    void onCommit(long identifier, @Router.Direction int how) {
+        if (how == Router.DIRECTION_BACKWARD) {
+            for (int i = backstackSize - 1; i >= 0; i--) {
+                if (backstack[i] == identifier) {
+                    truncateBackstack(i + 1);
+                    return;
+                }
+            }
+            // Not traversed, the router takes it as a new start
+            truncateBackstack(0);
+        } else if (backstackSize > 0 && backstack[backstackSize - 1] == identifier) {
+            return;
+        }
+
+        if (backstackSize == backstack.length) {
+            backstack = Arrays.copyOf(backstack, backstackSize * 2);
+        }
+        backstack[backstackSize++] = identifier;
+
+        Entry entry = entries.get(identifier);
+        if (entry != null) {
+            entry.pins++;
+        }
+    }
+
+    private void truncateBackstack(int size) {
+        for (int i = size; i < backstackSize; i++) {
+            Entry entry = entries.get(backstack[i]);
+            if (entry != null) {
+                entry.pins--;
+            }
+        }
+        backstackSize = size;
+    }
+
+    /**
+     * Evict least recently used views until there are at most the given amount, or only
+     * views of the backstack remain.
+     * @param size to trim to
+     */
+    void trimToSize(int size) {
+        while (entries.size() > size) {
+            int eldest = -1;
+            for (int i = 0, count = entries.size(); i < count; i++) {
+                if (entries.valueAt(i).pins == 0 &&
+                        (eldest < 0 || entries.valueAt(i).lastUsed < entries.valueAt(eldest).lastUsed)) {
+                    eldest = i;
+                }
+            }
+
+            if (eldest < 0) {
+                return; // Everything left is in use
+            }
+
+            entries.removeAt(eldest);
+            evictionCount++;
+        }
+    }
+
+    void clear() {
+        entries.clear();
+        backstackSize = 0;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    int maxSize() {
+        return maxSize;
+    }
+
+    int hitCount() {
+        return hitCount;
+    }
+
+    int missCount() {
+        return missCount;
+    }
+
+    int evictionCount() {
+        return evictionCount;
+    }
+
+    private static final class Entry {
+
+        final @NonNull View view;
+        long lastUsed;
+        boolean prefetched;
+        /**
+         * Times the node is in the backstack, its never evicted while pinned
+         */
+        int pins;
+
+        Entry(@NonNull View view, long lastUsed) {
+            this.view = view;
+            this.lastUsed = lastUsed;
+        }
+
+    }
+
+}
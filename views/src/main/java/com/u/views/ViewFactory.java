@@ -0,0 +1,20 @@
+package com.u.views;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+import android.view.View;
+
+/**
+ * Factory of views for a node class. Register one in {@link NodeViewSwitcher} for skipping
+ * the reflective construction of the view.
+ */
+public interface ViewFactory {
+
+    /**
+     * Create a new view
+     * @param context in which the view will be shown
+     * @return new view instance
+     */
+    @NonNull View create(@NonNull Context context);
+
+}